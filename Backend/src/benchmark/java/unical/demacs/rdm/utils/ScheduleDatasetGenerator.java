@@ -0,0 +1,94 @@
+package unical.demacs.rdm.utils;
+
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Genera problemi sintetici riproducibili per i benchmark: tipi di macchina, macchine e schedule
+ * con rilascio, scadenza, durata e priorità casuali a partire da un seed fisso.
+ * Le macchine crescono con le schedule, così il carico per macchina resta simile a ogni taglia
+ * e il confronto misura la scalabilità del solver e non un problema via via più vincolato.
+ */
+public class ScheduleDatasetGenerator {
+    public static final List<Integer> DEFAULT_SIZES = List.of(50, 200, 1_000, 5_000, 10_000);
+    public static final long GRAIN_SECONDS = 900L;
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int SCHEDULES_PER_MACHINE = 8;
+    private static final int MACHINES_PER_TYPE = 5;
+    private static final long RELEASE_SPAN_SECONDS = 3 * 86_400L;
+    private static final long MIN_SLACK_SECONDS = 4 * 3_600L;
+    private static final long MAX_SLACK_SECONDS = 72 * 3_600L;
+    private static final int MAX_DURATION_GRAINS = 16;
+
+    private final long seed;
+
+    public ScheduleDatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Problema con scheduleCount schedule; lo stesso seed e la stessa taglia danno sempre gli stessi dati.
+     */
+    public Dataset generate(int scheduleCount) {
+        Random random = new Random(seed + scheduleCount);
+        int machineCount = Math.max(2, (scheduleCount + SCHEDULES_PER_MACHINE - 1) / SCHEDULES_PER_MACHINE);
+        int machineTypeCount = Math.max(2, machineCount / MACHINES_PER_TYPE);
+
+        List<SolverMachine> machines = new ArrayList<>();
+        for (int i = 0; i < machineCount; i++) {
+            machines.add(new SolverMachine((long) i + 1, (i % machineTypeCount) + 1L));
+        }
+
+        long startTime = START.toEpochSecond(ZoneOffset.UTC);
+        long endTime = startTime;
+        List<SolverJob> jobs = new ArrayList<>();
+        for (int i = 0; i < scheduleCount; i++) {
+            long releaseTime = startTime + random.nextLong(RELEASE_SPAN_SECONDS / GRAIN_SECONDS) * GRAIN_SECONDS;
+            long duration = (1 + random.nextInt(MAX_DURATION_GRAINS)) * GRAIN_SECONDS;
+            long dueTime = releaseTime + duration + MIN_SLACK_SECONDS
+                    + random.nextLong(MAX_SLACK_SECONDS - MIN_SLACK_SECONDS);
+            endTime = Math.max(endTime, dueTime);
+            jobs.add(SolverJob.builder()
+                    .id((long) i + 1)
+                    .releaseTime(releaseTime)
+                    .dueTime(dueTime)
+                    .duration(duration)
+                    .priorityFactor(random.nextInt(4))
+                    .requiredMachineTypeId(random.nextInt(machineTypeCount) + 1L)
+                    .build());
+        }
+        return new Dataset(scheduleCount + "-schedules", new TimeWindow(startTime, endTime), machines, jobs);
+    }
+
+    /**
+     * Fatti di un problema generato, convertibili nella soluzione di entrambi i modelli.
+     */
+    public record Dataset(String name, TimeWindow timeWindow, List<SolverMachine> machines, List<SolverJob> jobs) {
+
+        /**
+         * Problema del modello GRAIN: come in Scheduler, ogni job vede solo le macchine del proprio tipo.
+         */
+        public ScheduleSolution toScheduleSolution(ScheduleConstraintConfiguration constraintConfiguration) {
+            CountableValueRange<Long> startTimeRange = TimeGrains.range(timeWindow, GRAIN_SECONDS);
+            Map<Long, List<SolverMachine>> machinesByType = machines.stream()
+                    .collect(Collectors.groupingBy(SolverMachine::getMachineTypeId));
+            List<JobAssignment> assignments = jobs.stream()
+                    .map(job -> new JobAssignment(job, machinesByType.getOrDefault(job.getRequiredMachineTypeId(), machines),
+                            startTimeRange))
+                    .collect(Collectors.toList());
+            return new ScheduleSolution(assignments, new ArrayList<>(machines), constraintConfiguration);
+        }
+
+        public SequenceSolution toSequenceSolution(ScheduleConstraintConfiguration constraintConfiguration) {
+            return new SequenceSolution(jobs, machines, constraintConfiguration);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package unical.demacs.rdm.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+import org.optaplanner.benchmark.config.PlannerBenchmarkConfig;
+import org.optaplanner.benchmark.config.ProblemBenchmarksConfig;
+import org.optaplanner.benchmark.config.SolverBenchmarkConfig;
+import org.optaplanner.benchmark.config.statistic.ProblemStatisticType;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark del solver con il benchmarker di OptaPlanner su problemi generati di taglia crescente.
+ * Per ogni modello e criterio (insieme di pesi dei vincoli) produce un report HTML con lo score
+ * nel tempo e la velocità di calcolo dello score di ogni strategia di ricerca locale.
+ * Si avvia con: mvn -Pbenchmark compile exec:java
+ * <p>
+ * Proprietà di sistema (tutte opzionali):
+ * benchmark.sizes, benchmark.models, benchmark.criteria, benchmark.strategies (liste separate da virgole),
+ * benchmark.seconds (tempo per solve), benchmark.warmUpSeconds, benchmark.parallelCount,
+ * benchmark.seed, benchmark.directory.
+ */
+@Slf4j
+public class SchedulerBenchmarkApp {
+
+    public static void main(String[] args) {
+        List<Integer> sizes = listProperty("benchmark.sizes", ScheduleDatasetGenerator.DEFAULT_SIZES, Integer::valueOf);
+        List<PlanningModel> models = listProperty("benchmark.models", Arrays.asList(PlanningModel.values()),
+                PlanningModel::valueOf);
+        List<String> criteria = listProperty("benchmark.criteria", SolverFactoryCache.CRITERIA, Function.identity());
+        List<SolverStrategy> strategies = listProperty("benchmark.strategies", Arrays.asList(SolverStrategy.values()),
+                SolverStrategy::valueOf);
+        long seconds = Long.getLong("benchmark.seconds", 60L);
+        File directory = new File(System.getProperty("benchmark.directory", "target/benchmarks"));
+
+        ScheduleDatasetGenerator generator = new ScheduleDatasetGenerator(Long.getLong("benchmark.seed", 0L));
+        List<ScheduleDatasetGenerator.Dataset> datasets = sizes.stream()
+                .map(generator::generate)
+                .collect(Collectors.toList());
+
+        for (PlanningModel model : models) {
+            for (String criterion : criteria) {
+                String name = model.name().toLowerCase() + "-" + criterion;
+                ScheduleConstraintConfiguration constraintConfiguration =
+                        ScheduleConstraintConfiguration.forCriterion(criterion);
+                List<Object> problems = datasets.stream()
+                        .map(dataset -> model == PlanningModel.CHAINED
+                                ? dataset.toSequenceSolution(constraintConfiguration)
+                                : (Object) dataset.toScheduleSolution(constraintConfiguration))
+                        .collect(Collectors.toList());
+                log.info("Benchmark {}: problemi {} con strategie {}", name,
+                        datasets.stream().map(ScheduleDatasetGenerator.Dataset::name).collect(Collectors.toList()),
+                        strategies);
+
+                File report = PlannerBenchmarkFactory.create(benchmarkConfig(name, model, strategies, seconds,
+                                new File(directory, name)))
+                        .buildPlannerBenchmark(problems)
+                        .benchmark();
+                log.info("Report del benchmark {}: {}", name, new File(report, "index.html").getAbsolutePath());
+            }
+        }
+    }
+
+    static PlannerBenchmarkConfig benchmarkConfig(String name, PlanningModel model, List<SolverStrategy> strategies,
+                                                  long seconds, File directory) {
+        List<SolverBenchmarkConfig> solverBenchmarks = strategies.stream()
+                .map(strategy -> new SolverBenchmarkConfig()
+                        .withName(strategy.name())
+                        .withSolverConfig(solverConfig(model, strategy, seconds)))
+                .collect(Collectors.toList());
+        return new PlannerBenchmarkConfig()
+                .withName(name)
+                .withBenchmarkDirectory(directory)
+                .withParallelBenchmarkCount(System.getProperty("benchmark.parallelCount", "1"))
+                .withWarmUpSecondsSpentLimit(Long.getLong("benchmark.warmUpSeconds", 30L))
+                .withInheritedSolverBenchmarkConfig(new SolverBenchmarkConfig()
+                        .withProblemBenchmarksConfig(new ProblemBenchmarksConfig()
+                                .withProblemStatisticTypes(ProblemStatisticType.BEST_SCORE,
+                                        ProblemStatisticType.STEP_SCORE,
+                                        ProblemStatisticType.SCORE_CALCULATION_SPEED,
+                                        ProblemStatisticType.MEMORY_USE)))
+                .withSolverBenchmarkConfigList(solverBenchmarks);
+    }
+
+    /**
+     * Stessa configurazione usata in produzione, ma con solo il limite di tempo: senza fermarsi
+     * alla prima soluzione ammissibile le curve dello score coprono tutto il solve.
+     */
+    private static SolverConfig solverConfig(PlanningModel model, SolverStrategy strategy, long seconds) {
+        SolverOptions options = SolverOptions.builder()
+                .model(model)
+                .moveThreadCount(SolverOptions.MOVE_THREAD_COUNT_NONE)
+                .strategy(strategy)
+                .build();
+        TerminationConfig terminationConfig = new TerminationConfig().withSecondsSpentLimit(seconds);
+        return model == PlanningModel.CHAINED
+                ? SolverFactoryCache.createSequenceSolverConfig(options, terminationConfig)
+                : SolverFactoryCache.createSolverConfig(options, terminationConfig);
+    }
+
+    private static <T> List<T> listProperty(String key, List<T> defaults, Function<String, T> parser) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaults;
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .map(parser)
+                .collect(Collectors.toList());
+    }
+}
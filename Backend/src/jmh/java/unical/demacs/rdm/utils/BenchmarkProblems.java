@@ -0,0 +1,87 @@
+package unical.demacs.rdm.utils;
+
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+import unical.demacs.rdm.persistence.entities.Machine;
+import unical.demacs.rdm.persistence.entities.MachineType;
+import unical.demacs.rdm.persistence.entities.Schedule;
+import unical.demacs.rdm.persistence.enums.MachineStatus;
+import unical.demacs.rdm.persistence.enums.ScheduleStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Problemi dei benchmark JMH, costruiti dagli stessi dataset del benchmarker di OptaPlanner.
+ */
+final class BenchmarkProblems {
+    static final long SEED = 0L;
+
+    private BenchmarkProblems() {
+    }
+
+    static ScheduleDatasetGenerator.Dataset dataset(int size) {
+        return new ScheduleDatasetGenerator(SEED).generate(size);
+    }
+
+    /**
+     * Soluzione GRAIN già inizializzata con macchine e orari casuali ma riproducibili,
+     * come quella che la ricerca locale modifica a ogni mossa.
+     */
+    static ScheduleSolution initializedSolution(int size, String criterion) {
+        ScheduleSolution solution = dataset(size).toScheduleSolution(ScheduleConstraintConfiguration.forCriterion(criterion));
+        Random random = new Random(SEED);
+        for (JobAssignment assignment : solution.getJobAssignments()) {
+            List<SolverMachine> machineRange = assignment.getMachineRange();
+            CountableValueRange<Long> startTimeRange = assignment.getStartTimeRange();
+            assignment.setAssignedMachine(machineRange.get(random.nextInt(machineRange.size())));
+            assignment.setStartTime(startTimeRange.get(random.nextLong(startTimeRange.getSize())));
+        }
+        return solution;
+    }
+
+    /**
+     * Macchine JPA del dataset, tutte disponibili.
+     */
+    static List<Machine> machines(ScheduleDatasetGenerator.Dataset dataset, Map<Long, MachineType> machineTypes) {
+        return dataset.machines().stream()
+                .map(machine -> Machine.machineBuilder()
+                        .id(machine.getId())
+                        .name("machine-" + machine.getId())
+                        .description("benchmark")
+                        .status(MachineStatus.AVAILABLE)
+                        .machine_type_id(machineTypes.get(machine.getMachineTypeId()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Schedule JPA del dataset ordinate per orario di inizio, come le riceve l'algoritmo FCFS.
+     */
+    static List<Schedule> schedules(ScheduleDatasetGenerator.Dataset dataset, Map<Long, MachineType> machineTypes) {
+        return dataset.jobs().stream()
+                .map(job -> Schedule.scheduleBuilder()
+                        .id(job.getId())
+                        .machineType(machineTypes.get(job.getRequiredMachineTypeId()))
+                        .startTime(LocalDateTime.ofEpochSecond(job.getReleaseTime(), 0, ZoneOffset.UTC))
+                        .dueDate(LocalDateTime.ofEpochSecond(job.getDueTime(), 0, ZoneOffset.UTC))
+                        .duration(job.getDuration())
+                        .status(ScheduleStatus.PENDING)
+                        .build())
+                .sorted(Comparator.comparing(Schedule::getStartTime))
+                .collect(Collectors.toList());
+    }
+
+    static Map<Long, MachineType> machineTypes(ScheduleDatasetGenerator.Dataset dataset) {
+        return dataset.machines().stream()
+                .map(SolverMachine::getMachineTypeId)
+                .distinct()
+                .map(id -> MachineType.buildMachineType().id(id).name("type-" + id).build())
+                .collect(Collectors.toMap(MachineType::getId, Function.identity()));
+    }
+}
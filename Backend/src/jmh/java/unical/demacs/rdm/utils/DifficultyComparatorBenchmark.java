@@ -0,0 +1,39 @@
+package unical.demacs.rdm.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ordinamento per difficoltà fatto dalla costruzione FIRST_FIT_DECREASING prima di assegnare i job.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DifficultyComparatorBenchmark {
+
+    @Param({"200", "1000", "10000"})
+    private int size;
+
+    private final JobAssignmentDifficultyComparator comparator = new JobAssignmentDifficultyComparator();
+    private List<JobAssignment> assignments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        assignments = BenchmarkProblems.dataset(size)
+                .toScheduleSolution(new ScheduleConstraintConfiguration())
+                .getJobAssignments();
+    }
+
+    @Benchmark
+    public List<JobAssignment> sortByDifficulty() {
+        List<JobAssignment> sorted = new ArrayList<>(assignments);
+        sorted.sort(comparator);
+        return sorted;
+    }
+}
@@ -0,0 +1,74 @@
+package unical.demacs.rdm.utils;
+
+import org.openjdk.jmh.annotations.*;
+import unical.demacs.rdm.config.SchedulerProperties;
+import unical.demacs.rdm.persistence.entities.Machine;
+import unical.demacs.rdm.persistence.entities.MachineType;
+import unical.demacs.rdm.persistence.entities.Schedule;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assegnazione FCFS, RR e con regole di dispatching delle schedule alle macchine. Tutte sovrascrivono
+ * orario e macchina delle schedule: ogni invocazione riparte dagli orari originali, il ripristino è incluso nella misura.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeuristicSchedulerBenchmark {
+
+    @Param({"200", "1000", "10000", "100000"})
+    private int size;
+
+    private List<Schedule> schedules;
+    private List<Machine> machines;
+    private LocalDateTime[] releaseTimes;
+    private final SchedulerProperties.RoundRobin roundRobin = new SchedulerProperties.RoundRobin();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ScheduleDatasetGenerator.Dataset dataset = BenchmarkProblems.dataset(size);
+        Map<Long, MachineType> machineTypes = BenchmarkProblems.machineTypes(dataset);
+        schedules = BenchmarkProblems.schedules(dataset, machineTypes);
+        machines = BenchmarkProblems.machines(dataset, machineTypes);
+        releaseTimes = schedules.stream().map(Schedule::getStartTime).toArray(LocalDateTime[]::new);
+    }
+
+    @Benchmark
+    public List<Schedule> firstComeFirstServed() {
+        reset();
+        return Scheduler.assignJobsToMachinesFCFS(schedules, machines);
+    }
+
+    @Benchmark
+    public List<Schedule> roundRobin() {
+        reset();
+        return Scheduler.assignJobsToMachinesRR(schedules, machines, roundRobin);
+    }
+
+    @Benchmark
+    public List<Schedule> earliestDueDate() {
+        reset();
+        return DispatchingEngine.dispatch(schedules, machines, DispatchingRule.EDD, 2.0);
+    }
+
+    @Benchmark
+    public List<Schedule> apparentTardinessCost() {
+        reset();
+        return DispatchingEngine.dispatch(schedules, machines, DispatchingRule.ATC, 2.0);
+    }
+
+    private void reset() {
+        for (int i = 0; i < releaseTimes.length; i++) {
+            Schedule schedule = schedules.get(i);
+            schedule.setStartTime(releaseTimes[i]);
+            schedule.setMachine(null);
+        }
+    }
+}
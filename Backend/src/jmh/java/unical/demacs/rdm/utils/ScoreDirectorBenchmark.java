@@ -0,0 +1,87 @@
+package unical.demacs.rdm.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Velocità di calcolo dello score di ScheduleConstraintProvider attraverso lo ScoreDirector BAVET.
+ * Le mosse incrementali cambiano una variabile di un'assegnazione a caso, come una ChangeMove della
+ * ricerca locale: il throughput in op/s è la score calculation speed riportata da OptaPlanner.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreDirectorBenchmark {
+
+    @Param({"200", "1000", "5000"})
+    private int size;
+
+    @Param({"priority"})
+    private String criterion;
+
+    private ScheduleSolution solution;
+    private List<JobAssignment> assignments;
+    private InnerScoreDirector<ScheduleSolution, HardSoftScore> scoreDirector;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solution = BenchmarkProblems.initializedSolution(size, criterion);
+        assignments = solution.getJobAssignments();
+        SolverOptions options = SolverOptions.builder()
+                .model(PlanningModel.GRAIN)
+                .moveThreadCount(SolverOptions.MOVE_THREAD_COUNT_NONE)
+                .build();
+        DefaultSolverFactory<ScheduleSolution> solverFactory = (DefaultSolverFactory<ScheduleSolution>) SolverFactory
+                .<ScheduleSolution>create(SolverFactoryCache.createSolverConfig(options, new TerminationConfig()));
+        scoreDirector = solverFactory.<HardSoftScore>getScoreDirectorFactory().buildScoreDirector(false, false);
+        scoreDirector.setWorkingSolution(solution);
+        scoreDirector.calculateScore();
+        random = new Random(BenchmarkProblems.SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Benchmark
+    public HardSoftScore changeStartTime() {
+        JobAssignment assignment = assignments.get(random.nextInt(assignments.size()));
+        Long startTime = assignment.getStartTimeRange().get(random.nextLong(assignment.getStartTimeRange().getSize()));
+        scoreDirector.beforeVariableChanged(assignment, "startTime");
+        assignment.setStartTime(startTime);
+        scoreDirector.afterVariableChanged(assignment, "startTime");
+        return scoreDirector.calculateScore();
+    }
+
+    @Benchmark
+    public HardSoftScore changeMachine() {
+        JobAssignment assignment = assignments.get(random.nextInt(assignments.size()));
+        List<SolverMachine> machineRange = assignment.getMachineRange();
+        scoreDirector.beforeVariableChanged(assignment, "assignedMachine");
+        assignment.setAssignedMachine(machineRange.get(random.nextInt(machineRange.size())));
+        scoreDirector.afterVariableChanged(assignment, "assignedMachine");
+        return scoreDirector.calculateScore();
+    }
+
+    /**
+     * Ricalcolo completo dalla soluzione, il costo pagato all'inizio di ogni fase e a ogni ProblemChange.
+     */
+    @Benchmark
+    public HardSoftScore fullCalculation() {
+        scoreDirector.setWorkingSolution(solution);
+        return scoreDirector.calculateScore();
+    }
+}
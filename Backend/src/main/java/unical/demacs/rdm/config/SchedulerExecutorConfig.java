@@ -0,0 +1,80 @@
+package unical.demacs.rdm.config;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class SchedulerExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService schedulerExecutor(SchedulerProperties schedulerProperties) {
+        return Executors.newFixedThreadPool(schedulerProperties.getParallelism(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("scheduler-run-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    /**
+     * Pool separato per le partizioni di un solve: una run di scheduleByEveryType
+     * occupa già un thread di schedulerExecutor e non deve attendere sullo stesso pool.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService partitionExecutor(SchedulerProperties schedulerProperties) {
+        return Executors.newFixedThreadPool(schedulerProperties.getPartitionParallelism(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("scheduler-partition-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    /**
+     * Pool dei solver di un portfolio: le partizioni girano su partitionExecutor
+     * e ognuna attende qui i propri solver. Il pool ha un thread per core al massimo:
+     * con più partizioni in esecuzione ogni portfolio ne usa solo una quota.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService portfolioExecutor(SchedulerProperties schedulerProperties) {
+        return Executors.newFixedThreadPool(schedulerProperties.getPortfolio().getParallelism(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("scheduler-portfolio-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    /**
+     * Pool degli invii SSE dei solve asincroni: il thread del solver accoda l'evento e non attende
+     * la rete. Un client lento rallenta al più gli altri stream, mai la ricerca.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService solveEventExecutor(SchedulerProperties schedulerProperties) {
+        return Executors.newFixedThreadPool(schedulerProperties.getAsync().getConcurrentSolves(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("scheduler-events-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    /**
+     * Pool limitato dei solve asincroni: oltre la coda le nuove richieste vengono rifiutate
+     * invece di sovraccaricare la CPU.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService solveJobExecutor(SchedulerProperties schedulerProperties) {
+        SchedulerProperties.Async async = schedulerProperties.getAsync();
+        return new ThreadPoolExecutor(async.getConcurrentSolves(), async.getConcurrentSolves(),
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(async.getQueueCapacity()),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("scheduler-job-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+}
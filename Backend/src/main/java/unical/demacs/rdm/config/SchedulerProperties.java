@@ -0,0 +1,284 @@
+package unical.demacs.rdm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import unical.demacs.rdm.utils.PlanningModel;
+import unical.demacs.rdm.utils.SeedHeuristic;
+import unical.demacs.rdm.utils.SolverStrategy;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "scheduler")
+public class SchedulerProperties {
+
+    /**
+     * Se true, scheduleByEveryType esegue i criteri in parallelo
+     * invece che uno dopo l'altro.
+     */
+    private boolean parallel = true;
+
+    /**
+     * Numero massimo di run di schedulazione eseguite contemporaneamente.
+     */
+    private int parallelism = Math.max(1, Math.min(5, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Numero massimo di partizioni (tipi di macchina) risolte contemporaneamente nel solve partizionato.
+     */
+    private int partitionParallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Se true, all'avvio viene eseguito un solve su un problema sintetico minimo
+     * per ogni criterio, così la prima richiesta reale non è quella lenta.
+     */
+    private boolean warmUp = true;
+
+    private Solver solver = new Solver();
+
+    private Async async = new Async();
+
+    private RealTime realTime = new RealTime();
+
+    private Grain grain = new Grain();
+
+    private Horizon horizon = new Horizon();
+
+    private Portfolio portfolio = new Portfolio();
+
+    private RoundRobin roundRobin = new RoundRobin();
+
+    private Dispatching dispatching = new Dispatching();
+
+    private Termination termination = new Termination();
+
+    @Data
+    public static class Solver {
+
+        /**
+         * Modello di pianificazione: GRAIN (macchina e orario su griglia) oppure CHAINED
+         * (catena ordinata di job per macchina, orari calcolati dal predecessore).
+         */
+        private PlanningModel model = PlanningModel.GRAIN;
+
+        /**
+         * Se true il problema viene diviso per tipo di macchina e ogni partizione
+         * è risolta in modo indipendente, in parallelo.
+         */
+        private boolean partitioned = false;
+
+        /**
+         * Numero di move thread per il solving multithread incrementale di OptaPlanner:
+         * NONE (single thread), AUTO oppure un numero esplicito.
+         */
+        private String moveThreadCount = "NONE";
+
+        /**
+         * Seed del solver. Se impostato il solve gira in modalità REPRODUCIBLE,
+         * anche con più move thread.
+         */
+        private Long randomSeed;
+
+        /**
+         * Se true il solve parte dall'ultimo piano salvato per il criterio (o da macchina e orario
+         * delle schedule) e l'euristica di costruzione assegna solo le schedule nuove.
+         */
+        private boolean warmStart = false;
+
+        /**
+         * Euristica che fornisce il piano iniziale del solve (FCFS o una regola di dispatching):
+         * l'euristica di costruzione assegna solo le schedule rimaste fuori. NONE la disattiva.
+         */
+        private SeedHeuristic seedHeuristic = SeedHeuristic.NONE;
+
+        /**
+         * Se true scheduleByEveryType risolve i tre criteri OptaPlanner con un solo solve a score
+         * multi-livello e, per ogni criterio, sceglie tra i best di quel solve: un risultato
+         * approssimato, più veloce di tre solve separati.
+         */
+        private boolean multiObjective = false;
+
+        /**
+         * Algoritmo della ricerca locale usato quando il solve non è a portfolio.
+         */
+        private SolverStrategy strategy = SolverStrategy.DEFAULT;
+    }
+
+    @Data
+    public static class Async {
+
+        /**
+         * Numero massimo di solve asincroni eseguiti contemporaneamente.
+         */
+        private int concurrentSolves = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        /**
+         * Solve asincroni in attesa oltre quelli in esecuzione: le richieste successive ricevono 429.
+         */
+        private int queueCapacity = 10;
+
+        /**
+         * Numero di solve terminati di cui si conservano stato e risultato.
+         */
+        private int retainedJobs = 50;
+    }
+
+    @Data
+    public static class RealTime {
+
+        /**
+         * Secondi senza miglioramenti dopo i quali il solver in tempo reale si sospende
+         * fino alla modifica successiva.
+         */
+        private long unimprovedSeconds = 5;
+    }
+
+    @Data
+    public static class Grain {
+
+        /**
+         * Passo in secondi della griglia degli orari di inizio. Con 0 viene derivata dal MCD delle durate dei job.
+         */
+        private long seconds = 0;
+
+        /**
+         * Durata minima di un grain derivato.
+         */
+        private long minSeconds = 60;
+
+        /**
+         * Numero massimo di grain: oltre questa soglia la risoluzione viene ridotta.
+         */
+        private int maxCount = 5000;
+
+        /**
+         * Se true si risolve prima su grain grossolani e poi si raffinano gli orari
+         * sui grain fini, solo attorno a ogni assegnazione.
+         */
+        private boolean twoPass = false;
+
+        /**
+         * Numero massimo di grain del primo passo grossolano.
+         */
+        private int coarseMaxCount = 500;
+
+        /**
+         * Raggio, in grain grossolani, dell'intorno esplorato nel passo di raffinamento.
+         */
+        private int refineRadius = 1;
+
+        /**
+         * Tempo massimo in secondi del passo di raffinamento.
+         */
+        private long refineSeconds = 5;
+    }
+
+    @Data
+    public static class Horizon {
+
+        /**
+         * Se true il solve copre solo un orizzonte mobile: le schedule in esecuzione e quelle
+         * nella finestra congelata restano ferme, quelle rilasciate oltre l'orizzonte aspettano un solve successivo.
+         */
+        private boolean rolling = false;
+
+        /**
+         * Ore da adesso entro cui una schedule deve essere rilasciata per entrare nel solve.
+         */
+        private long planningHours = 72;
+
+        /**
+         * Minuti da adesso in cui le schedule già assegnate a una macchina non vengono più spostate.
+         */
+        private long frozenMinutes = 60;
+    }
+
+    @Data
+    public static class Portfolio {
+
+        /**
+         * Se true ogni solve fa correre in parallelo una configurazione per strategia sullo stesso problema
+         * e tiene la soluzione migliore.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Strategie in gara. Una strategia ripetuta corre con un seed diverso.
+         */
+        private List<SolverStrategy> strategies = List.of(SolverStrategy.DEFAULT, SolverStrategy.TABU_SEARCH,
+                SolverStrategy.SIMULATED_ANNEALING, SolverStrategy.LATE_ACCEPTANCE);
+
+        /**
+         * Numero massimo di solver di portfolio eseguiti contemporaneamente, divisi tra le partizioni
+         * in esecuzione. Il default è un solver per core.
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Data
+    public static class RoundRobin {
+
+        /**
+         * Peso delle macchine senza un peso esplicito.
+         */
+        private int defaultWeight = 1;
+
+        /**
+         * Peso per id macchina: per ogni giro del round robin sul proprio tipo una macchina riceve
+         * tanti job quanto il suo peso. Con 0 la macchina è esclusa.
+         */
+        private Map<Long, Integer> weights = new HashMap<>();
+    }
+
+    @Data
+    public static class Dispatching {
+
+        /**
+         * Parametro k della regola ATC: più è alto, prima un job in scadenza guadagna priorità sugli altri.
+         */
+        private double atcK = 2.0;
+    }
+
+    /**
+     * Limiti di terminazione dei solve OptaPlanner. Un valore assente mantiene il default
+     * (30 secondi, arresto alla prima soluzione ammissibile); i parametri della richiesta
+     * sostituiscono questi valori.
+     */
+    @Data
+    public static class Termination {
+
+        /**
+         * Tempo massimo del solve in secondi; con secondsPerEntity è il tetto del budget.
+         */
+        private Long secondsSpentLimit;
+
+        /**
+         * Secondi senza miglioramenti dopo i quali il solve termina.
+         */
+        private Long unimprovedSecondsSpentLimit;
+
+        /**
+         * Passi massimi della ricerca locale.
+         */
+        private Integer stepCountLimit;
+
+        /**
+         * Score obiettivo, es. 0hard/*soft; vuoto per cercare fino agli altri limiti.
+         */
+        private String bestScoreLimit;
+
+        /**
+         * Secondi di budget per entità del problema, così i problemi piccoli rispondono subito.
+         */
+        private Double secondsPerEntity;
+
+        /**
+         * Limiti per criterio (priority, due-date, duration), applicati sopra quelli globali.
+         */
+        private Map<String, Termination> criteria = new HashMap<>();
+    }
+}
@@ -0,0 +1,7 @@
+package unical.demacs.rdm.config.exception;
+
+public class InvalidConstraintWeightException extends RuntimeException {
+    public InvalidConstraintWeightException(String message) {
+        super(message);
+    }
+}
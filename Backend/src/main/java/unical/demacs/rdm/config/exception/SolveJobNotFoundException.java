@@ -0,0 +1,7 @@
+package unical.demacs.rdm.config.exception;
+
+public class SolveJobNotFoundException extends RuntimeException {
+    public SolveJobNotFoundException(String message) {
+        super(message);
+    }
+}
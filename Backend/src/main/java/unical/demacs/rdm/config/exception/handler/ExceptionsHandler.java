@@ -55,6 +55,20 @@ public class ExceptionsHandler {
         return new ResponseEntity<>(response.toString(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(SolveJobNotFoundException.class)
+    public ResponseEntity<String> handleSolveJobNotFoundException(SolveJobNotFoundException ex) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("message", ex.getMessage());
+        return new ResponseEntity<>(response.toString(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(InvalidConstraintWeightException.class)
+    public ResponseEntity<String> handleInvalidConstraintWeightException(InvalidConstraintWeightException ex) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("message", ex.getMessage());
+        return new ResponseEntity<>(response.toString(), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(JobNotFoundException.class)
     public ResponseEntity<String> handleJobNotFoundException(JobNotFoundException ex) {
         ObjectNode response = objectMapper.createObjectNode();
@@ -2,42 +2,64 @@ package unical.demacs.rdm.controller;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import unical.demacs.rdm.utils.Scheduler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import unical.demacs.rdm.config.exception.InvalidConstraintWeightException;
+import unical.demacs.rdm.persistence.dto.ScheduleWithMachineDTO;
+import unical.demacs.rdm.persistence.dto.SolveJobDTO;
+import unical.demacs.rdm.persistence.dto.SolverOptionsDTO;
+import unical.demacs.rdm.utils.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/v1/scheduler")
 @Tag(name = "scheduler-engine", description = "Scheduler management APIs")
 @AllArgsConstructor
 public class SchedulerController {
+    private static final long EVENTS_TIMEOUT_MILLIS = 30 * 60 * 1000L;
 
     private final Scheduler scheduler;
+    private final SolveJobManager solveJobManager;
+    private final RealTimePlanner realTimePlanner;
+    private final ConstraintWeights constraintWeights;
+    private final ExecutorService solveEventExecutor;
 
     @GetMapping("/schedule-all")
-    public ResponseEntity<Map<String,String>> ScheduleAll() {
-        scheduler.scheduleByEveryType();
+    public ResponseEntity<Map<String,String>> ScheduleAll(@ParameterObject SolverOptionsDTO solverOptionsDTO) {
+        scheduler.scheduleByEveryType(solverOptions(solverOptionsDTO));
         return new ResponseEntity<>(Map.of("message", "Scheduling completed"), HttpStatus.OK);
     }
 
     @GetMapping("/schedule-priority")
-    public ResponseEntity<Map<String,String>> SchedulePriority() {
-        scheduler.scheduleByPriority();
+    public ResponseEntity<Map<String,String>> SchedulePriority(@ParameterObject SolverOptionsDTO solverOptionsDTO) {
+        scheduler.scheduleByPriority(solverOptions(solverOptionsDTO));
         return new ResponseEntity<>(Map.of("message", "Scheduling completed"), HttpStatus.OK);
     }
 
     @GetMapping("/schedule-due-date")
-    public ResponseEntity<Map<String,String>> ScheduleDueDate() {
-        scheduler.scheduleByDueDate();
+    public ResponseEntity<Map<String,String>> ScheduleDueDate(@ParameterObject SolverOptionsDTO solverOptionsDTO) {
+        scheduler.scheduleByDueDate(solverOptions(solverOptionsDTO));
         return new ResponseEntity<>(Map.of("message", "Scheduling completed"), HttpStatus.OK);
     }
 
     @GetMapping("/schedule-duration")
-    public ResponseEntity<Map<String,String>> ScheduleDuration() {
-        scheduler.scheduleByDuration();
+    public ResponseEntity<Map<String,String>> ScheduleDuration(@ParameterObject SolverOptionsDTO solverOptionsDTO) {
+        scheduler.scheduleByDuration(solverOptions(solverOptionsDTO));
         return new ResponseEntity<>(Map.of("message", "Scheduling completed"), HttpStatus.OK);
     }
 
@@ -53,4 +75,217 @@ public class SchedulerController {
         return new ResponseEntity<>(Map.of("message", "Scheduling completed"), HttpStatus.OK);
     }
 
-}
\ No newline at end of file
+    @GetMapping("/schedule-dispatching")
+    public ResponseEntity<Map<String,String>> ScheduleDispatching(@RequestParam DispatchingRule rule) {
+        scheduler.scheduleByDispatchingRule(rule);
+        return new ResponseEntity<>(Map.of("message", "Scheduling completed"), HttpStatus.OK);
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<SolveJobDTO> submitSolveJob(
+            @RequestParam String criterion,
+            @ParameterObject SolverOptionsDTO solverOptionsDTO) {
+        SolveJob solveJob = solveJobManager.submit(criterion, solverOptions(solverOptionsDTO));
+        return new ResponseEntity<>(toDTO(solveJob), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/jobs/{problemId}")
+    public ResponseEntity<SolveJobDTO> getSolveJob(@PathVariable Long problemId) {
+        return new ResponseEntity<>(toDTO(solveJobManager.get(problemId)), HttpStatus.OK);
+    }
+
+    @GetMapping("/jobs/{problemId}/result")
+    public ResponseEntity<?> getSolveJobResult(@PathVariable Long problemId) {
+        SolveJob solveJob = solveJobManager.get(problemId);
+        List<ScheduleWithMachineDTO> result = solveJob.getResult();
+        if (result == null) {
+            return new ResponseEntity<>(Map.of("message", "Result not available", "status", solveJob.getStatus().name()),
+                    HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    /**
+     * Stream SSE del solve: un evento "best-solution" con score e job assegnati a ogni miglioramento,
+     * poi un evento "done" con lo stato finale, dopo il quale lo stream viene chiuso.
+     * Gli eventi partono da solveEventExecutor: con un invio già in coda il solver non ne accoda
+     * un altro, perché quello in coda legge lo stato più recente.
+     */
+    @GetMapping(value = "/jobs/{problemId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSolveJob(@PathVariable Long problemId) {
+        SolveJob solveJob = solveJobManager.get(problemId);
+        SseEmitter emitter = new SseEmitter(EVENTS_TIMEOUT_MILLIS);
+        AtomicBoolean pending = new AtomicBoolean();
+        Consumer<SolveJob> listener = job -> {
+            if (pending.compareAndSet(false, true)) {
+                solveEventExecutor.execute(() -> {
+                    pending.set(false);
+                    try {
+                        sendEvent(emitter, job);
+                    } catch (UncheckedIOException e) {
+                        // Client disconnesso: le callback dell'emitter rimuovono il listener
+                    }
+                });
+            }
+        };
+
+        solveJob.addProgressListener(listener);
+        emitter.onCompletion(() -> solveJob.removeProgressListener(listener));
+        emitter.onTimeout(() -> solveJob.removeProgressListener(listener));
+        emitter.onError(e -> solveJob.removeProgressListener(listener));
+        sendEvent(emitter, solveJob);
+        return emitter;
+    }
+
+    @DeleteMapping("/jobs/{problemId}")
+    public ResponseEntity<SolveJobDTO> cancelSolveJob(@PathVariable Long problemId) {
+        return new ResponseEntity<>(toDTO(solveJobManager.cancel(problemId)), HttpStatus.OK);
+    }
+
+    /**
+     * Avvia la pianificazione in tempo reale: le modifiche a schedule e macchine vengono applicate
+     * al solver attivo senza ripartire da zero. Stato ed eventi si leggono da /jobs/{problemId}.
+     */
+    @PostMapping("/real-time")
+    public ResponseEntity<SolveJobDTO> startRealTime(
+            @RequestParam String criterion,
+            @RequestParam(required = false) String moveThreadCount,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) Long grainSeconds) {
+        SolverOptionsDTO solverOptionsDTO = new SolverOptionsDTO();
+        solverOptionsDTO.setMoveThreadCount(moveThreadCount);
+        solverOptionsDTO.setSeed(seed);
+        solverOptionsDTO.setGrainSeconds(grainSeconds);
+        SolveJob solveJob = realTimePlanner.start(criterion, solverOptions(solverOptionsDTO));
+        return new ResponseEntity<>(toDTO(solveJob), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/real-time")
+    public ResponseEntity<SolveJobDTO> getRealTime() {
+        return realTimePlanner.current()
+                .map(solveJob -> new ResponseEntity<>(toDTO(solveJob), HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @DeleteMapping("/real-time")
+    public ResponseEntity<SolveJobDTO> stopRealTime() {
+        return realTimePlanner.stop()
+                .map(solveJob -> new ResponseEntity<>(toDTO(solveJob), HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/constraint-weights/{criterion}")
+    public ResponseEntity<Map<String, String>> getConstraintWeights(@PathVariable String criterion) {
+        return new ResponseEntity<>(toWeights(constraintWeights.forCriterion(criterion)), HttpStatus.OK);
+    }
+
+    /**
+     * Modifica i pesi dei vincoli indicati, per esempio {"Balance machine load": "0hard/200soft"}.
+     * Valgono per i solve successivi del criterio e per la sessione in tempo reale attiva sullo stesso criterio.
+     */
+    @PutMapping("/constraint-weights/{criterion}")
+    public ResponseEntity<Map<String, String>> updateConstraintWeights(
+            @PathVariable String criterion,
+            @RequestBody Map<String, String> weights) {
+        Map<String, HardSoftScore> parsed = new LinkedHashMap<>();
+        weights.forEach((constraintName, weight) -> parsed.put(constraintName, parseWeight(constraintName, weight)));
+        ScheduleConstraintConfiguration constraintConfiguration = constraintWeights.update(criterion, parsed);
+        realTimePlanner.constraintWeightsChanged(criterion, constraintConfiguration);
+        return new ResponseEntity<>(toWeights(constraintConfiguration), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/constraint-weights/{criterion}")
+    public ResponseEntity<Map<String, String>> resetConstraintWeights(@PathVariable String criterion) {
+        ScheduleConstraintConfiguration constraintConfiguration = constraintWeights.reset(criterion);
+        realTimePlanner.constraintWeightsChanged(criterion, constraintConfiguration);
+        return new ResponseEntity<>(toWeights(constraintConfiguration), HttpStatus.OK);
+    }
+
+    private HardSoftScore parseWeight(String constraintName, String weight) {
+        try {
+            return HardSoftScore.parseScore(weight);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidConstraintWeightException("Invalid weight for " + constraintName + ": " + weight);
+        }
+    }
+
+    private Map<String, String> toWeights(ScheduleConstraintConfiguration constraintConfiguration) {
+        Map<String, String> weights = new LinkedHashMap<>();
+        constraintConfiguration.weights().forEach((constraintName, weight) -> weights.put(constraintName, weight.toString()));
+        return weights;
+    }
+
+    private void sendEvent(SseEmitter emitter, SolveJob solveJob) {
+        boolean done = solveJob.isDone();
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(done ? "done" : "best-solution")
+                    .data(toDTO(solveJob), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            log.debug("Client SSE del solve {} disconnesso", solveJob.getProblemId());
+            emitter.completeWithError(e);
+            throw new UncheckedIOException(e);
+        } catch (IllegalStateException e) {
+            // Lo stream è già stato chiuso da un evento "done" concorrente
+            return;
+        }
+        if (done) {
+            emitter.complete();
+        }
+    }
+
+    private SolveJobDTO toDTO(SolveJob solveJob) {
+        return new SolveJobDTO(solveJob.getProblemId(), solveJob.getCriterion(), solveJob.getStatus().name(),
+                solveJob.getBestScore() != null ? solveJob.getBestScore().toString() : null,
+                solveJob.getAssignedJobCount(), solveJob.getSubmittedAt(), solveJob.getStartedAt(),
+                solveJob.getFinishedAt(), solveJob.getError(), solveJob.getWinningStrategies());
+    }
+
+    private SolverOptions solverOptions(SolverOptionsDTO solverOptionsDTO) {
+        SolverOptions.SolverOptionsBuilder options = scheduler.defaultSolverOptions().toBuilder();
+        if (solverOptionsDTO.getModel() != null) {
+            options.model(solverOptionsDTO.getModel());
+        }
+        if (solverOptionsDTO.getPartitioned() != null) {
+            options.partitioned(solverOptionsDTO.getPartitioned());
+        }
+        if (solverOptionsDTO.getMoveThreadCount() != null) {
+            options.moveThreadCount(solverOptionsDTO.getMoveThreadCount());
+        }
+        if (solverOptionsDTO.getSeed() != null) {
+            options.randomSeed(solverOptionsDTO.getSeed());
+        }
+        if (solverOptionsDTO.getGrainSeconds() != null) {
+            options.grainSeconds(solverOptionsDTO.getGrainSeconds());
+        }
+        if (solverOptionsDTO.getTwoPass() != null) {
+            options.twoPass(solverOptionsDTO.getTwoPass());
+        }
+        if (solverOptionsDTO.getWarmStart() != null) {
+            options.warmStart(solverOptionsDTO.getWarmStart());
+        }
+        if (solverOptionsDTO.getSeedHeuristic() != null) {
+            options.seedHeuristic(solverOptionsDTO.getSeedHeuristic());
+        }
+        if (solverOptionsDTO.getMultiObjective() != null) {
+            options.multiObjective(solverOptionsDTO.getMultiObjective());
+        }
+        if (solverOptionsDTO.getRollingHorizon() != null) {
+            options.rollingHorizon(solverOptionsDTO.getRollingHorizon());
+        }
+        if (solverOptionsDTO.getStrategy() != null) {
+            options.strategy(solverOptionsDTO.getStrategy());
+        }
+        if (solverOptionsDTO.getPortfolio() != null) {
+            options.portfolio(solverOptionsDTO.getPortfolio());
+        }
+        options.termination(SolverTermination.builder()
+                .secondsSpentLimit(solverOptionsDTO.getSecondsSpentLimit())
+                .unimprovedSecondsSpentLimit(solverOptionsDTO.getUnimprovedSecondsSpentLimit())
+                .stepCountLimit(solverOptionsDTO.getStepCountLimit())
+                .bestScoreLimit(solverOptionsDTO.getBestScoreLimit())
+                .secondsPerEntity(solverOptionsDTO.getSecondsPerEntity())
+                .build());
+        return options.build();
+    }
+}
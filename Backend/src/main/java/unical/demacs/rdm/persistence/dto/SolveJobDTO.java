@@ -0,0 +1,26 @@
+package unical.demacs.rdm.persistence.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SolveJobDTO {
+
+    private Long problemId;
+    private String criterion;
+    private String status;
+    private String bestScore;
+    private Integer assignedJobCount;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    private List<String> winningStrategies;
+
+}
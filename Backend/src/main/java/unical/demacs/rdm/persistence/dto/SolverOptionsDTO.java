@@ -0,0 +1,36 @@
+package unical.demacs.rdm.persistence.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import unical.demacs.rdm.utils.PlanningModel;
+import unical.demacs.rdm.utils.SeedHeuristic;
+import unical.demacs.rdm.utils.SolverStrategy;
+
+/**
+ * Opzioni del solver lette dai parametri di query: un valore assente lascia il default di SchedulerProperties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SolverOptionsDTO {
+
+    private PlanningModel model;
+    private Boolean partitioned;
+    private String moveThreadCount;
+    private Long seed;
+    private Long grainSeconds;
+    private Boolean twoPass;
+    private Boolean warmStart;
+    private SeedHeuristic seedHeuristic;
+    private Boolean multiObjective;
+    private Boolean rollingHorizon;
+    private SolverStrategy strategy;
+    private Boolean portfolio;
+    private Long secondsSpentLimit;
+    private Long unimprovedSecondsSpentLimit;
+    private Integer stepCountLimit;
+    private String bestScoreLimit;
+    private Double secondsPerEntity;
+
+}
@@ -0,0 +1,6 @@
+package unical.demacs.rdm.persistence.event;
+
+public enum ChangeType {
+    SAVED,
+    DELETED
+}
@@ -0,0 +1,9 @@
+package unical.demacs.rdm.persistence.event;
+
+import unical.demacs.rdm.persistence.entities.Machine;
+
+/**
+ * Pubblicato dai servizi quando una macchina viene creata, modificata (anche solo nello stato) o eliminata.
+ */
+public record MachineChangedEvent(Machine machine, ChangeType changeType) {
+}
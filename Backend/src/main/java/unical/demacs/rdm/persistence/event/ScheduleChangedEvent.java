@@ -0,0 +1,9 @@
+package unical.demacs.rdm.persistence.event;
+
+import unical.demacs.rdm.persistence.entities.Schedule;
+
+/**
+ * Pubblicato dai servizi quando una schedule viene creata, modificata, cambia stato o viene eliminata.
+ */
+public record ScheduleChangedEvent(Schedule schedule, ChangeType changeType) {
+}
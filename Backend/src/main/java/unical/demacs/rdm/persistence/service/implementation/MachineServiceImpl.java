@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +14,8 @@ import unical.demacs.rdm.config.exception.MachineException;
 import unical.demacs.rdm.config.exception.TooManyRequestsException;
 import unical.demacs.rdm.persistence.dto.MachineDTO;
 import unical.demacs.rdm.persistence.entities.Machine;
+import unical.demacs.rdm.persistence.event.ChangeType;
+import unical.demacs.rdm.persistence.event.MachineChangedEvent;
 import unical.demacs.rdm.persistence.repository.MachineRepository;
 import unical.demacs.rdm.persistence.repository.MachineTypeRepository;
 import unical.demacs.rdm.persistence.service.interfaces.IMachineService;
@@ -28,6 +31,7 @@ public class MachineServiceImpl implements IMachineService {
     private final RateLimiter rateLimiter;
     private final MachineRepository machineRepository;
     private final MachineTypeRepository machineTypeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     @Override
@@ -55,6 +59,7 @@ public class MachineServiceImpl implements IMachineService {
                     .build();
 
             machine = machineRepository.save(machine);
+            eventPublisher.publishEvent(new MachineChangedEvent(machine, ChangeType.SAVED));
             logger.info("Machine with name {} created successfully", machineDTO.getName());
             return machine;
         } catch (DuplicateMachineNameException e) {
@@ -115,6 +120,7 @@ public class MachineServiceImpl implements IMachineService {
             machine.setMachine_type_id(machineType);
 
             machine = machineRepository.save(machine);
+            eventPublisher.publishEvent(new MachineChangedEvent(machine, ChangeType.SAVED));
             logger.info("Machine with id {} updated successfully", id);
             return machine;
         } catch (TooManyRequestsException e) {
@@ -141,6 +147,7 @@ public class MachineServiceImpl implements IMachineService {
                     .orElseThrow(() -> new MachineException("Machine not found"));
 
             machineRepository.delete(machine);
+            eventPublisher.publishEvent(new MachineChangedEvent(machine, ChangeType.DELETED));
             logger.info("Machine with id {} deleted successfully", id);
             return true;
         } catch (TooManyRequestsException e) {
@@ -4,11 +4,14 @@ import com.google.common.util.concurrent.RateLimiter;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import unical.demacs.rdm.persistence.dto.ScheduleDTO;
 import unical.demacs.rdm.persistence.entities.Schedule;
 import unical.demacs.rdm.persistence.enums.ScheduleStatus;
+import unical.demacs.rdm.persistence.event.ChangeType;
+import unical.demacs.rdm.persistence.event.ScheduleChangedEvent;
 import unical.demacs.rdm.persistence.repository.MachineTypeRepository;
 import unical.demacs.rdm.persistence.repository.ScheduleRepository;
 import unical.demacs.rdm.persistence.repository.JobRepository;
@@ -29,6 +32,7 @@ public class ScheduleServiceImpl implements IScheduleService {
     private final ScheduleRepository scheduleRepository;
     private final JobRepository jobRepository;
     private final MachineTypeRepository machineTypeRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Schedule createSchedule(ScheduleDTO scheduleDTO) {
@@ -65,6 +69,7 @@ public class ScheduleServiceImpl implements IScheduleService {
 
             scheduleRepository.save(schedule);
             updateScheduleStatuses();
+            eventPublisher.publishEvent(new ScheduleChangedEvent(schedule, ChangeType.SAVED));
             logger.info("Schedule for job with id {} created successfully", scheduleDTO.getJobId());
             return schedule;
         } catch (Exception e) {
@@ -147,6 +152,7 @@ public class ScheduleServiceImpl implements IScheduleService {
             updatedSchedule.setStartTime(scheduleDTO.getStartTime());
             updatedSchedule.setDuration(scheduleDTO.getDuration());
             scheduleRepository.save(updatedSchedule);
+            eventPublisher.publishEvent(new ScheduleChangedEvent(updatedSchedule, ChangeType.SAVED));
             logger.info("Schedule with id {} updated successfully", id);
             return updatedSchedule;
         } catch (Exception e) {
@@ -173,6 +179,7 @@ public class ScheduleServiceImpl implements IScheduleService {
                 throw new RuntimeException("Schedule not found");
             }
             scheduleRepository.delete(schedule.get());
+            eventPublisher.publishEvent(new ScheduleChangedEvent(schedule.get(), ChangeType.DELETED));
             logger.info("Schedule with id {} deleted successfully", id);
             return true;
         } catch (Exception e) {
@@ -322,6 +329,7 @@ public class ScheduleServiceImpl implements IScheduleService {
             Schedule updatedSchedule = schedule.get();
             updatedSchedule.setStatus(newStatus);
             scheduleRepository.save(updatedSchedule);
+            eventPublisher.publishEvent(new ScheduleChangedEvent(updatedSchedule, ChangeType.SAVED));
             logger.info("Schedule status with id {} updated successfully", id);
             return updatedSchedule;
         } catch (Exception e) {
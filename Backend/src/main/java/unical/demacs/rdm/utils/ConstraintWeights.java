@@ -0,0 +1,74 @@
+package unical.demacs.rdm.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.springframework.stereotype.Component;
+import unical.demacs.rdm.config.exception.InvalidConstraintWeightException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pesi dei vincoli modificati a runtime, per criterio. Ogni solve parte dai pesi di
+ * ScheduleConstraintConfiguration.forCriterion con sopra quelli modificati: i pesi sono un fatto
+ * del problema, quindi le SolverFactory in cache restano valide.
+ */
+@Slf4j
+@Component
+public class ConstraintWeights {
+    private final Map<String, Map<String, HardSoftScore>> overrides = new ConcurrentHashMap<>();
+
+    /**
+     * Nuova configurazione per il criterio con i pesi correnti.
+     *
+     * @throws InvalidConstraintWeightException se il criterio non esiste
+     */
+    public ScheduleConstraintConfiguration forCriterion(String criterion) {
+        checkCriterion(criterion);
+        ScheduleConstraintConfiguration config = ScheduleConstraintConfiguration.forCriterion(criterion);
+        overrides.getOrDefault(criterion, Map.of()).forEach(config::setWeight);
+        return config;
+    }
+
+    /**
+     * Modifica i pesi indicati per i solve successivi del criterio; gli altri restano invariati.
+     *
+     * @throws InvalidConstraintWeightException se criterio o nome di un vincolo non esistono
+     */
+    public ScheduleConstraintConfiguration update(String criterion, Map<String, HardSoftScore> weights) {
+        // Criterio e nomi vengono validati prima di salvare i pesi
+        ScheduleConstraintConfiguration config = forCriterion(criterion);
+        weights.keySet().stream()
+                .filter(constraintName -> !config.weights().containsKey(constraintName))
+                .findFirst()
+                .ifPresent(constraintName -> {
+                    throw new InvalidConstraintWeightException("Unknown constraint: " + constraintName);
+                });
+        weights.forEach(config::setWeight);
+        overrides.merge(criterion, Map.copyOf(weights), (current, changed) -> {
+            Map<String, HardSoftScore> merged = new HashMap<>(current);
+            merged.putAll(changed);
+            return Map.copyOf(merged);
+        });
+        log.info("Pesi dei vincoli per il criterio {} modificati: {}", criterion, weights);
+        return config;
+    }
+
+    /**
+     * Torna ai pesi predefiniti del criterio.
+     */
+    public ScheduleConstraintConfiguration reset(String criterion) {
+        checkCriterion(criterion);
+        ScheduleConstraintConfiguration config = ScheduleConstraintConfiguration.forCriterion(criterion);
+        overrides.remove(criterion);
+        log.info("Pesi dei vincoli per il criterio {} ripristinati", criterion);
+        return config;
+    }
+
+    private void checkCriterion(String criterion) {
+        if (!SolverFactoryCache.CRITERIA.contains(criterion)) {
+            throw new InvalidConstraintWeightException("Unknown scheduling criterion: " + criterion);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package unical.demacs.rdm.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import unical.demacs.rdm.persistence.entities.Machine;
+import unical.demacs.rdm.persistence.entities.Schedule;
+import unical.demacs.rdm.persistence.enums.ScheduleStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Schedulazione a lista con una regola di dispatching, alternativa veloce a un solve OptaPlanner.
+ * Per ogni tipo di macchina la macchina che si libera per prima (MachineHeap) riceve il job migliore
+ * secondo la regola tra quelli già rilasciati. Le regole a indice fisso usano una coda con priorità,
+ * ATC ricalcola l'indice dei job pronti a ogni scelta. Con migliaia di job gira in millisecondi.
+ */
+@Slf4j
+public final class DispatchingEngine {
+
+    private DispatchingEngine() {
+    }
+
+    /**
+     * Assegna macchina e orario di inizio alle schedule. Le schedule senza macchine compatibili
+     * non vengono assegnate e non compaiono nel risultato.
+     *
+     * @return le schedule assegnate, per tipo di macchina e nell'ordine di dispatch
+     */
+    public static List<Schedule> dispatch(List<Schedule> schedules, List<Machine> machines, DispatchingRule rule,
+                                          double atcK) {
+        Map<Long, MachineHeap> heapsByType = MachineHeap.byMachineType(machines);
+        Map<Long, List<Schedule>> schedulesByType = new LinkedHashMap<>();
+        for (Schedule schedule : schedules) {
+            Long machineTypeId = schedule.getMachineType() != null ? schedule.getMachineType().getId() : null;
+            if (machineTypeId == null || !heapsByType.containsKey(machineTypeId)) {
+                log.warn("Schedule {} senza macchine compatibili disponibili, non assegnata", schedule.getId());
+                continue;
+            }
+            schedulesByType.computeIfAbsent(machineTypeId, id -> new ArrayList<>()).add(schedule);
+        }
+
+        List<Schedule> assigned = new ArrayList<>(schedules.size());
+        schedulesByType.forEach((machineTypeId, typeSchedules) ->
+                dispatchType(typeSchedules, machines, heapsByType.get(machineTypeId), rule, atcK, assigned));
+        return assigned;
+    }
+
+    private static void dispatchType(List<Schedule> schedules, List<Machine> machines, MachineHeap heap,
+                                     DispatchingRule rule, double atcK, List<Schedule> assigned) {
+        schedules.sort(Comparator.comparing(Schedule::getStartTime));
+        int count = schedules.size();
+        long[] releaseTimes = new long[count];
+        long[] dueTimes = new long[count];
+        long[] durations = new long[count];
+        int[] weights = new int[count];
+        double totalDuration = 0;
+        for (int i = 0; i < count; i++) {
+            Schedule schedule = schedules.get(i);
+            releaseTimes[i] = schedule.getStartTime().toEpochSecond(ZoneOffset.UTC);
+            dueTimes[i] = schedule.getDueDate() != null
+                    ? schedule.getDueDate().toEpochSecond(ZoneOffset.UTC)
+                    : Long.MAX_VALUE;
+            durations[i] = schedule.getDuration();
+            weights[i] = weightOf(schedule);
+            totalDuration += durations[i];
+        }
+        double averageDuration = Math.max(1.0, totalDuration / count);
+
+        // Indici fissi calcolati una volta; a parità vince il job rilasciato prima
+        double[] indexes = new double[count];
+        if (!rule.isTimeDependent()) {
+            for (int i = 0; i < count; i++) {
+                indexes[i] = rule.index(dueTimes[i], durations[i], weights[i], 0L, averageDuration, atcK);
+            }
+        }
+        PriorityQueue<Integer> readyQueue = new PriorityQueue<>(Comparator
+                .comparingDouble((Integer i) -> indexes[i])
+                .thenComparingInt(i -> i));
+        int[] readyList = new int[count];
+        int readyCount = 0;
+
+        int next = 0;
+        for (int dispatched = 0; dispatched < count; dispatched++) {
+            // Nessun job parte prima del primo rilascio: evita anche l'orario iniziale Long.MIN_VALUE nell'indice ATC
+            long machineFreeTime = Math.max(heap.peekFreeTime(), releaseTimes[0]);
+            boolean noneReady = rule.isTimeDependent() ? readyCount == 0 : readyQueue.isEmpty();
+            long now = noneReady ? Math.max(machineFreeTime, releaseTimes[next]) : machineFreeTime;
+            while (next < count && releaseTimes[next] <= now) {
+                if (rule.isTimeDependent()) {
+                    readyList[readyCount++] = next;
+                } else {
+                    readyQueue.add(next);
+                }
+                next++;
+            }
+
+            int job;
+            if (rule.isTimeDependent()) {
+                int best = 0;
+                double bestIndex = Double.POSITIVE_INFINITY;
+                for (int k = 0; k < readyCount; k++) {
+                    int candidate = readyList[k];
+                    double index = rule.index(dueTimes[candidate], durations[candidate], weights[candidate], now,
+                            averageDuration, atcK);
+                    if (index < bestIndex || (index == bestIndex && candidate < readyList[best])) {
+                        best = k;
+                        bestIndex = index;
+                    }
+                }
+                job = readyList[best];
+                readyList[best] = readyList[--readyCount];
+            } else {
+                job = readyQueue.poll();
+            }
+
+            Machine machine = machines.get(heap.peekMachine());
+            long jobStartTime = Math.max(now, releaseTimes[job]);
+            long jobEndTime = jobStartTime + durations[job];
+            heap.updateTop(jobEndTime);
+
+            Schedule schedule = schedules.get(job);
+            schedule.setMachine(machine);
+            schedule.setStartTime(LocalDateTime.ofEpochSecond(jobStartTime, 0, ZoneOffset.UTC));
+            schedule.setStatus(ScheduleStatus.SCHEDULED);
+            assigned.add(schedule);
+
+            log.debug("Schedule {} assegnata con {} alla macchina {}: start at {}, end at {}",
+                    schedule.getId(), rule, machine.getId(), jobStartTime, jobEndTime);
+        }
+    }
+
+    /**
+     * Peso della priorità del job: da 1 (LOW) a 4 (URGENT), 1 se il job non ha priorità.
+     */
+    static int weightOf(Schedule schedule) {
+        return schedule.getJob() != null && schedule.getJob().getPriority() != null
+                ? schedule.getJob().getPriority().ordinal() + 1
+                : 1;
+    }
+}
@@ -0,0 +1,53 @@
+package unical.demacs.rdm.utils;
+
+/**
+ * Regola di dispatching della schedulazione a lista: quando una macchina si libera riceve,
+ * tra i job già rilasciati del suo tipo, quello con l'indice più basso.
+ */
+public enum DispatchingRule {
+    /**
+     * Earliest due date: prima la scadenza più vicina.
+     */
+    EDD,
+    /**
+     * Shortest processing time: prima il job più corto.
+     */
+    SPT,
+    /**
+     * Weighted shortest processing time: durata divisa per il peso della priorità del job.
+     */
+    WSPT,
+    /**
+     * Apparent tardiness cost: come WSPT, ma il peso cresce in modo esponenziale quando lo slack
+     * verso la scadenza si esaurisce. L'indice dipende dall'istante della scelta.
+     */
+    ATC;
+
+    /**
+     * Nome usato per il file dei risultati, es. job-scheduled-by-edd.json.
+     */
+    public String criterion() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Se true l'indice va ricalcolato a ogni scelta, altrimenti è fisso per job.
+     */
+    public boolean isTimeDependent() {
+        return this == ATC;
+    }
+
+    /**
+     * Indice di priorità del job all'istante now; il valore più basso viene servito per primo.
+     * averageDuration e atcK servono solo ad ATC.
+     */
+    public double index(long dueTime, long duration, int weight, long now, double averageDuration, double atcK) {
+        return switch (this) {
+            case EDD -> dueTime;
+            case SPT -> duration;
+            case WSPT -> (double) duration / weight;
+            case ATC -> -(weight / (double) Math.max(1L, duration))
+                    * Math.exp(-Math.max(0L, dueTime - duration - now) / (atcK * averageDuration));
+        };
+    }
+}
@@ -1,51 +1,132 @@
 package unical.demacs.rdm.utils;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.entity.PlanningPin;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
-import unical.demacs.rdm.persistence.entities.Machine;
-import unical.demacs.rdm.persistence.entities.Schedule;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Data
 @NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @PlanningEntity(difficultyComparatorClass = JobAssignmentDifficultyComparator.class)
 public class JobAssignment {
     private static final AtomicLong idCounter = new AtomicLong();
 
     @PlanningId
+    @EqualsAndHashCode.Include
     private Long id;
-    private Schedule schedule;
+
+    /**
+     * Dati della schedule calcolati una volta dal SolverFactMapper,
+     * così i vincoli non convertono date né navigano Schedule -> Job a ogni valutazione.
+     */
+    private SolverJob job;
 
     @PlanningVariable(valueRangeProviderRefs = "machineRange")
-    private Machine assignedMachine;
+    private SolverMachine assignedMachine;
+
+    /**
+     * Macchine candidate: solo quelle del tipo richiesto dal job, così il solver non esplora
+     * assegnazioni che il vincolo di compatibilità renderebbe comunque non ammissibili.
+     */
+    @ValueRangeProvider(id = "machineRange")
+    private List<SolverMachine> machineRange;
+
+    /**
+     * Orario di inizio in secondi epoch (UTC), scelto dal value range numerico dell'assegnazione.
+     */
+    @PlanningVariable(valueRangeProviderRefs = "startTimeRange")
+    private Long startTime;
+
+    /**
+     * Orari di inizio candidati: la griglia condivisa oppure, nel passo di raffinamento,
+     * solo la griglia fine attorno all'orario trovato. Il range è calcolato, non materializzato.
+     */
+    @ValueRangeProvider(id = "startTimeRange")
+    private CountableValueRange<Long> startTimeRange;
 
-    @PlanningVariable(valueRangeProviderRefs = "timeGrainRange")
-    private TimeGrain startTimeGrain;
+    /**
+     * Schedule in esecuzione o nella finestra congelata: macchina e orario restano quelli impostati.
+     */
+    @PlanningPin
+    private boolean pinned;
 
-    public JobAssignment(Schedule schedule) {
-        this.schedule = schedule;
+    public JobAssignment(SolverJob job) {
+        this.job = job;
         this.id = idCounter.incrementAndGet();
     }
-    public Long getStartTimeInSeconds() {
-        return startTimeGrain != null ? startTimeGrain.getStartTimeInSeconds() : null;
+
+    public JobAssignment(SolverJob job, List<SolverMachine> machineRange, CountableValueRange<Long> startTimeRange) {
+        this(job);
+        this.machineRange = machineRange;
+        this.startTimeRange = startTimeRange;
+    }
+
+    public boolean isScheduled() {
+        return startTime != null;
+    }
+
+    /**
+     * Da usare solo se {@link #isScheduled()}: evita il boxing nei vincoli.
+     */
+    public long getStartTimeInSeconds() {
+        return startTime;
+    }
+
+    public long getEndTimeInSeconds() {
+        return startTime + job.getDuration();
+    }
+
+    public long getScheduleId() {
+        return job.getId();
+    }
+
+    public long getReleaseTime() {
+        return job.getReleaseTime();
+    }
+
+    public long getDueTime() {
+        return job.getDueTime();
     }
 
-    public Long getEndTimeInSeconds() {
-        return getStartTimeInSeconds() != null ? getStartTimeInSeconds() + schedule.getDuration() : null;
+    public long getDuration() {
+        return job.getDuration();
+    }
+
+    public int getPriorityFactor() {
+        return job.getPriorityFactor();
+    }
+
+    public Long getRequiredMachineTypeId() {
+        return job.getRequiredMachineTypeId();
+    }
+
+    /**
+     * Da usare solo se la macchina è assegnata.
+     */
+    public Long getAssignedMachineId() {
+        return assignedMachine.getId();
+    }
+
+    public long getAssignedMachineTypeId() {
+        return assignedMachine.getMachineTypeId();
     }
 
     @Override
     public String toString() {
-        return String.format("JobAssignment{id=%d, scheduleId=%d, machineId=%s, startTime=%s, endTime=%s}",
+        return String.format("JobAssignment{id=%d, scheduleId=%s, machineId=%s, startTime=%s, endTime=%s}",
                 id,
-                schedule != null ? schedule.getId() : null,
+                job != null ? job.getId() : null,
                 assignedMachine != null ? assignedMachine.getId() : "unassigned",
-                startTimeGrain != null ? startTimeGrain.getStartTimeInSeconds() : "unscheduled",
-                getEndTimeInSeconds() != null ? getEndTimeInSeconds() : "unknown");
+                startTime != null ? startTime : "unscheduled",
+                startTime != null && job != null ? getEndTimeInSeconds() : "unknown");
     }
 }
-
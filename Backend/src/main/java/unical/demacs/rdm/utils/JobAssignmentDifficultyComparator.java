@@ -7,13 +7,11 @@ public class JobAssignmentDifficultyComparator implements Comparator<JobAssignme
     
     @Override
     public int compare(JobAssignment a, JobAssignment b) {
-        int durationComparison = Long.compare(b.getSchedule().getDuration(), a.getSchedule().getDuration());
+        int durationComparison = Long.compare(b.getDuration(), a.getDuration());
         if (durationComparison != 0) {
             return durationComparison;
         }
-        return Integer.compare(
-            b.getSchedule().getJob().getPriority().ordinal(),
-            a.getSchedule().getJob().getPriority().ordinal()
-        );
+        // priorityFactor decresce al crescere della priorità
+        return Integer.compare(a.getPriorityFactor(), b.getPriorityFactor());
     }
 }
\ No newline at end of file
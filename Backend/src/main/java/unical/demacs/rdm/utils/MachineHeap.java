@@ -0,0 +1,132 @@
+package unical.demacs.rdm.utils;
+
+import unical.demacs.rdm.persistence.entities.Machine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Min-heap delle macchine per orario in cui tornano libere, in secondi epoch (UTC).
+ * Le macchine sono indici in una lista esterna; orari e indici stanno in array primitivi,
+ * così ogni scelta della macchina costa O(log m) senza oggetti LocalDateTime né boxing.
+ * A parità di orario vince l'indice più basso, cioè la macchina che viene prima nella lista.
+ */
+public final class MachineHeap {
+    private final int[] machines;
+    private final long[] freeTimes;
+    private int size;
+
+    public MachineHeap(int capacity) {
+        this.machines = new int[capacity];
+        this.freeTimes = new long[capacity];
+    }
+
+    /**
+     * Un heap per tipo di macchina con tutte le macchine libere da subito; gli indici sono
+     * le posizioni nella lista ricevuta. Le macchine senza tipo non finiscono in nessun heap.
+     */
+    public static Map<Long, MachineHeap> byMachineType(List<Machine> machines) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Machine machine : machines) {
+            if (machine.getMachine_type_id() != null) {
+                counts.merge(machine.getMachine_type_id().getId(), 1, Integer::sum);
+            }
+        }
+        Map<Long, MachineHeap> heaps = new HashMap<>();
+        for (int i = 0; i < machines.size(); i++) {
+            Machine machine = machines.get(i);
+            if (machine.getMachine_type_id() != null) {
+                Long machineTypeId = machine.getMachine_type_id().getId();
+                heaps.computeIfAbsent(machineTypeId, id -> new MachineHeap(counts.get(id))).add(i, Long.MIN_VALUE);
+            }
+        }
+        return heaps;
+    }
+
+    public void add(int machine, long freeTime) {
+        if (size == machines.length) {
+            throw new IllegalStateException("MachineHeap pieno: capacità " + machines.length);
+        }
+        machines[size] = machine;
+        freeTimes[size] = freeTime;
+        siftUp(size++);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Macchina che torna libera per prima.
+     */
+    public int peekMachine() {
+        checkNotEmpty();
+        return machines[0];
+    }
+
+    public long peekFreeTime() {
+        checkNotEmpty();
+        return freeTimes[0];
+    }
+
+    /**
+     * Aggiorna l'orario di fine della macchina in cima dopo averle assegnato un job.
+     */
+    public void updateTop(long freeTime) {
+        checkNotEmpty();
+        freeTimes[0] = freeTime;
+        siftDown(0);
+    }
+
+    private void siftUp(int index) {
+        int machine = machines[index];
+        long freeTime = freeTimes[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(freeTime, machine, freeTimes[parent], machines[parent])) {
+                break;
+            }
+            machines[index] = machines[parent];
+            freeTimes[index] = freeTimes[parent];
+            index = parent;
+        }
+        machines[index] = machine;
+        freeTimes[index] = freeTime;
+    }
+
+    private void siftDown(int index) {
+        int machine = machines[index];
+        long freeTime = freeTimes[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && before(freeTimes[right], machines[right], freeTimes[child], machines[child])) {
+                child = right;
+            }
+            if (!before(freeTimes[child], machines[child], freeTime, machine)) {
+                break;
+            }
+            machines[index] = machines[child];
+            freeTimes[index] = freeTimes[child];
+            index = child;
+        }
+        machines[index] = machine;
+        freeTimes[index] = freeTime;
+    }
+
+    private static boolean before(long freeTime, int machine, long otherFreeTime, int otherMachine) {
+        return freeTime < otherFreeTime || (freeTime == otherFreeTime && machine < otherMachine);
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("MachineHeap vuoto");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package unical.demacs.rdm.utils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.optaplanner.core.api.domain.lookup.PlanningId;
+
+/**
+ * Inizio della catena di job eseguiti su una macchina nel modello CHAINED.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class MachineSequence implements Standstill {
+
+    @PlanningId
+    @EqualsAndHashCode.Include
+    private Long id;
+    private long machineTypeId;
+    private SequencedJob nextJob;
+
+    public MachineSequence(SolverMachine machine) {
+        this.id = machine.getId();
+        this.machineTypeId = machine.getMachineTypeId();
+    }
+
+    @Override
+    public MachineSequence getMachineSequence() {
+        return this;
+    }
+
+    /**
+     * La macchina è libera da subito: il primo job parte al suo orario di rilascio.
+     */
+    @Override
+    public Long getEndTime() {
+        return Long.MIN_VALUE;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MachineSequence{machineId=%d}", id);
+    }
+}
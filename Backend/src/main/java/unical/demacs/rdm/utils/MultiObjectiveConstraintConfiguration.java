@@ -0,0 +1,134 @@
+package unical.demacs.rdm.utils;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.optaplanner.core.api.domain.constraintweight.ConstraintConfiguration;
+import org.optaplanner.core.api.domain.constraintweight.ConstraintWeight;
+import org.optaplanner.core.api.score.buildin.bendablelong.BendableLongScore;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pesi del solve multi-obiettivo. Lo score ha un livello hard e {@value #SOFT_LEVELS} livelli soft:
+ * il livello 0 somma gli score soft di tutte le pesature e guida la ricerca, gli altri contengono
+ * l'impatto grezzo di ogni vincolo soft. Dai livelli grezzi si ricalcola lo score soft di ogni
+ * pesatura (criterio) senza rivalutare i vincoli.
+ */
+@Data
+@NoArgsConstructor
+@ConstraintConfiguration
+public class MultiObjectiveConstraintConfiguration {
+    public static final int HARD_LEVELS = 1;
+    public static final int SOFT_LEVELS = 6;
+
+    static final int COMBINED_LEVEL = 0;
+    static final int ENCOURAGE_ASSIGNMENT_LEVEL = 1;
+    static final int BALANCE_MACHINE_LOAD_LEVEL = 2;
+    static final int HIGH_PRIORITY_JOBS_FIRST_LEVEL = 3;
+    static final int SHORT_DURATION_JOBS_FIRST_LEVEL = 4;
+    static final int DISTRIBUTE_JOBS_LEVEL = 5;
+
+    @ConstraintWeight("Assignment required")
+    private BendableLongScore assignmentRequired = hard(100_000L);
+
+    @ConstraintWeight("Machine conflict")
+    private BendableLongScore machineConflict = hard(1_000L);
+
+    @ConstraintWeight("Machine type compatibility")
+    private BendableLongScore machineTypeCompatibility = hard(1_000L);
+
+    @ConstraintWeight("Job due date")
+    private BendableLongScore jobDueDate = hard(100L);
+
+    @ConstraintWeight("Jobs must start after start date")
+    private BendableLongScore jobsStartAfterStartDate = hard(1_000L);
+
+    @ConstraintWeight("Encourage assignment")
+    private BendableLongScore encourageAssignment = BendableLongScore.zero(HARD_LEVELS, SOFT_LEVELS);
+
+    @ConstraintWeight("Balance machine load")
+    private BendableLongScore balanceMachineLoad = BendableLongScore.zero(HARD_LEVELS, SOFT_LEVELS);
+
+    @ConstraintWeight("High priority jobs first")
+    private BendableLongScore highPriorityJobsFirst = BendableLongScore.zero(HARD_LEVELS, SOFT_LEVELS);
+
+    @ConstraintWeight("Short duration jobs first")
+    private BendableLongScore shortDurationJobsFirst = BendableLongScore.zero(HARD_LEVELS, SOFT_LEVELS);
+
+    @ConstraintWeight("Distribute jobs across machines")
+    private BendableLongScore distributeJobsAcrossMachines = BendableLongScore.zero(HARD_LEVELS, SOFT_LEVELS);
+
+    /**
+     * Peso soft di ogni livello grezzo per ogni pesatura, nell'ordine ricevuto.
+     */
+    private List<long[]> weightings = new ArrayList<>();
+
+    /**
+     * Configurazione per un insieme di pesature: i pesi soft dei vincoli sono quelli delle
+     * ScheduleConstraintConfiguration, il peso hard di ogni vincolo è il massimo tra le pesature.
+     */
+    public static MultiObjectiveConstraintConfiguration of(List<ScheduleConstraintConfiguration> configurations) {
+        MultiObjectiveConstraintConfiguration config = new MultiObjectiveConstraintConfiguration();
+        for (ScheduleConstraintConfiguration configuration : configurations) {
+            long[] weights = new long[SOFT_LEVELS];
+            weights[ENCOURAGE_ASSIGNMENT_LEVEL] = configuration.getEncourageAssignment().softScore();
+            weights[BALANCE_MACHINE_LOAD_LEVEL] = configuration.getBalanceMachineLoad().softScore();
+            weights[HIGH_PRIORITY_JOBS_FIRST_LEVEL] = configuration.getHighPriorityJobsFirst().softScore();
+            weights[SHORT_DURATION_JOBS_FIRST_LEVEL] = configuration.getShortDurationJobsFirst().softScore();
+            weights[DISTRIBUTE_JOBS_LEVEL] = configuration.getDistributeJobsAcrossMachines().softScore();
+            config.weightings.add(weights);
+        }
+        config.assignmentRequired = hard(configurations, ScheduleConstraintConfiguration::getAssignmentRequired);
+        config.machineConflict = hard(configurations, ScheduleConstraintConfiguration::getMachineConflict);
+        config.machineTypeCompatibility =
+                hard(configurations, ScheduleConstraintConfiguration::getMachineTypeCompatibility);
+        config.jobDueDate = hard(configurations, ScheduleConstraintConfiguration::getJobDueDate);
+        config.jobsStartAfterStartDate =
+                hard(configurations, ScheduleConstraintConfiguration::getJobsStartAfterStartDate);
+        config.encourageAssignment = soft(config, ENCOURAGE_ASSIGNMENT_LEVEL);
+        config.balanceMachineLoad = soft(config, BALANCE_MACHINE_LOAD_LEVEL);
+        config.highPriorityJobsFirst = soft(config, HIGH_PRIORITY_JOBS_FIRST_LEVEL);
+        config.shortDurationJobsFirst = soft(config, SHORT_DURATION_JOBS_FIRST_LEVEL);
+        config.distributeJobsAcrossMachines = soft(config, DISTRIBUTE_JOBS_LEVEL);
+        return config;
+    }
+
+    /**
+     * Score soft della pesatura con indice weighting, ricavato dai livelli grezzi dello score.
+     */
+    public long softScore(BendableLongScore score, int weighting) {
+        long[] weights = weightings.get(weighting);
+        long softScore = 0L;
+        for (int level = ENCOURAGE_ASSIGNMENT_LEVEL; level < SOFT_LEVELS; level++) {
+            softScore += weights[level] * score.softScore(level);
+        }
+        return softScore;
+    }
+
+    public int weightingCount() {
+        return weightings.size();
+    }
+
+    private static BendableLongScore hard(long weight) {
+        return BendableLongScore.ofHard(HARD_LEVELS, SOFT_LEVELS, 0, weight);
+    }
+
+    private static BendableLongScore hard(List<ScheduleConstraintConfiguration> configurations,
+                                          Function<ScheduleConstraintConfiguration, HardSoftScore> weight) {
+        return hard(configurations.stream().mapToLong(c -> weight.apply(c).hardScore()).max().orElse(1L));
+    }
+
+    /**
+     * Peso di un vincolo soft: 1 sul proprio livello grezzo e la somma dei pesi di tutte
+     * le pesature sul livello combinato.
+     */
+    private static BendableLongScore soft(MultiObjectiveConstraintConfiguration config, int level) {
+        long[] softScores = new long[SOFT_LEVELS];
+        softScores[COMBINED_LEVEL] = config.weightings.stream().mapToLong(weights -> weights[level]).sum();
+        softScores[level] = 1L;
+        return BendableLongScore.of(new long[HARD_LEVELS], softScores);
+    }
+}
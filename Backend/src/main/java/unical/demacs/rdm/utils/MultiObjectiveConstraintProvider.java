@@ -0,0 +1,124 @@
+package unical.demacs.rdm.utils;
+
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+import org.optaplanner.core.api.score.stream.Joiners;
+
+import static org.optaplanner.core.api.score.stream.ConstraintCollectors.sum;
+
+/**
+ * Vincoli di ScheduleConstraintProvider per il solve multi-obiettivo, con lo stesso impatto per match;
+ * i pesi della MultiObjectiveConstraintConfiguration lo distribuiscono sui livelli dello score.
+ */
+public class MultiObjectiveConstraintProvider implements ConstraintProvider {
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        return new Constraint[]{
+                // Hard constraints
+                assignmentRequired(constraintFactory),
+                machineConflict(constraintFactory),
+                machineTypeCompatibility(constraintFactory),
+                respectDueDates(constraintFactory),
+                jobsStartAfterStartDate(constraintFactory),
+
+                // Soft constraints
+                encourageAssignment(constraintFactory),
+                balanceMachineLoad(constraintFactory),
+                prioritizeHighPriorityJobs(constraintFactory),
+                prioritizeShortDurationJobs(constraintFactory),
+                distributeJobsAcrossMachines(constraintFactory)
+        };
+    }
+
+    // ---------------------- Hard ----------------------
+
+    private Constraint assignmentRequired(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(JobAssignment.class)
+                .filter(ja -> ja.getAssignedMachine() == null || !ja.isScheduled())
+                .penalizeConfigurable()
+                .asConstraint("Assignment required");
+    }
+
+    private Constraint machineConflict(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEachUniquePair(JobAssignment.class,
+                        Joiners.equal(JobAssignment::getAssignedMachineId),
+                        Joiners.overlapping(JobAssignment::getStartTimeInSeconds, JobAssignment::getEndTimeInSeconds))
+                .penalizeConfigurable()
+                .asConstraint("Machine conflict");
+    }
+
+    private Constraint machineTypeCompatibility(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(JobAssignment.class)
+                .filter(ja -> ja.getAssignedMachine() != null &&
+                        ja.getRequiredMachineTypeId() != null &&
+                        ja.getRequiredMachineTypeId() != ja.getAssignedMachineTypeId())
+                .penalizeConfigurable()
+                .asConstraint("Machine type compatibility");
+    }
+
+    private Constraint respectDueDates(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(JobAssignment.class)
+                .filter(ja -> ja.isScheduled() && ja.getEndTimeInSeconds() > ja.getDueTime())
+                .penalizeConfigurable()
+                .asConstraint("Job due date");
+    }
+
+    private Constraint jobsStartAfterStartDate(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(JobAssignment.class)
+                .filter(ja -> ja.isScheduled() && ja.getStartTimeInSeconds() < ja.getReleaseTime())
+                .penalizeConfigurable()
+                .asConstraint("Jobs must start after start date");
+    }
+
+    // ---------------------- Soft ----------------------
+
+    private Constraint encourageAssignment(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(JobAssignment.class)
+                .filter(ja -> ja.getAssignedMachine() != null && ja.isScheduled())
+                .rewardConfigurable()
+                .asConstraint("Encourage assignment");
+    }
+
+    private Constraint balanceMachineLoad(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(JobAssignment.class)
+                .groupBy(JobAssignment::getAssignedMachineId,
+                        sum(ja -> Math.toIntExact(ja.getDuration())))
+                .penalizeConfigurableLong((machine, totalDuration) -> totalDuration / 3600L)
+                .asConstraint("Balance machine load");
+    }
+
+    private Constraint prioritizeHighPriorityJobs(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(JobAssignment.class)
+                .filter(JobAssignment::isScheduled)
+                .penalizeConfigurableLong(ja -> {
+                    long timeDelay = (ja.getStartTimeInSeconds() - ja.getReleaseTime()) / 3600;
+                    return ja.getPriorityFactor() * timeDelay * timeDelay;
+                })
+                .asConstraint("High priority jobs first");
+    }
+
+    private Constraint prioritizeShortDurationJobs(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(JobAssignment.class)
+                .rewardConfigurableLong(ja -> 7200L - Math.min(ja.getDuration(), 7200))
+                .asConstraint("Short duration jobs first");
+    }
+
+    private Constraint distributeJobsAcrossMachines(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(JobAssignment.class)
+                .groupBy(JobAssignment::getRequiredMachineTypeId)
+                .rewardConfigurable()
+                .asConstraint("Distribute jobs across machines");
+    }
+}
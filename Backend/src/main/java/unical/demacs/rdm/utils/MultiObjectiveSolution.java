@@ -0,0 +1,55 @@
+package unical.demacs.rdm.utils;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.optaplanner.core.api.domain.constraintweight.ConstraintConfigurationProvider;
+import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
+import org.optaplanner.core.api.domain.solution.PlanningScore;
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.domain.solution.ProblemFactCollectionProperty;
+import org.optaplanner.core.api.score.buildin.bendablelong.BendableLongScore;
+
+import java.util.List;
+
+/**
+ * Soluzione del solve multi-obiettivo: le stesse assegnazioni del modello a grain, con uno score
+ * a livelli che conserva l'impatto di ogni vincolo soft per tutte le pesature.
+ */
+@Slf4j
+@PlanningSolution
+@NoArgsConstructor
+@Data
+public class MultiObjectiveSolution {
+
+    @ConstraintConfigurationProvider
+    private MultiObjectiveConstraintConfiguration constraintConfiguration;
+
+    @PlanningEntityCollectionProperty
+    private List<JobAssignment> jobAssignments;
+
+    @ProblemFactCollectionProperty
+    private List<SolverMachine> machines;
+
+    @PlanningScore(bendableHardLevelsSize = MultiObjectiveConstraintConfiguration.HARD_LEVELS,
+            bendableSoftLevelsSize = MultiObjectiveConstraintConfiguration.SOFT_LEVELS)
+    private BendableLongScore score;
+
+    public MultiObjectiveSolution(List<JobAssignment> jobAssignments, List<SolverMachine> machines,
+                                  MultiObjectiveConstraintConfiguration constraintConfiguration) {
+        this.jobAssignments = jobAssignments;
+        this.machines = machines;
+        this.constraintConfiguration = constraintConfiguration;
+        log.debug("Creata MultiObjectiveSolution con {} jobAssignments, {} machines",
+                jobAssignments.size(), machines.size());
+    }
+
+    /**
+     * Numero di job con macchina e orario assegnati.
+     */
+    public int countAssignedJobs() {
+        return (int) jobAssignments.stream()
+                .filter(assignment -> assignment.getAssignedMachine() != null && assignment.isScheduled())
+                .count();
+    }
+}
@@ -0,0 +1,58 @@
+package unical.demacs.rdm.utils;
+
+import org.optaplanner.core.api.score.buildin.bendablelong.BendableLongScore;
+import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
+import org.optaplanner.core.api.solver.event.SolverEventListener;
+
+/**
+ * Segue i best del solve multi-obiettivo e sceglie tra questi, per ogni pesatura, la soluzione
+ * con meno violazioni hard e poi con lo score soft più alto della pesatura.
+ * Il solver segnala un nuovo best solo quando migliora il livello combinato: una soluzione migliore
+ * per un singolo criterio ma non per la somma non viene mai proposta. Il risultato per criterio
+ * è quindi un'approssimazione, scelta nella storia del solve combinato, e non l'ottimo
+ * della pesatura. Le soluzioni dell'evento sono già clonate dal solver.
+ */
+public class MultiObjectiveTracker implements SolverEventListener<MultiObjectiveSolution> {
+    private final MultiObjectiveConstraintConfiguration constraintConfiguration;
+    private final Best[] bests;
+
+    public MultiObjectiveTracker(MultiObjectiveConstraintConfiguration constraintConfiguration) {
+        this.constraintConfiguration = constraintConfiguration;
+        this.bests = new Best[constraintConfiguration.weightingCount()];
+    }
+
+    @Override
+    public void bestSolutionChanged(BestSolutionChangedEvent<MultiObjectiveSolution> event) {
+        offer(event.getNewBestSolution());
+    }
+
+    /**
+     * Propone una soluzione già clonata, ad esempio il best restituito dal solver.
+     */
+    public void offer(MultiObjectiveSolution solution) {
+        BendableLongScore score = solution.getScore();
+        if (score == null || !score.isSolutionInitialized()) {
+            return;
+        }
+        long hardScore = score.hardScore(0);
+        for (int weighting = 0; weighting < bests.length; weighting++) {
+            long softScore = constraintConfiguration.softScore(score, weighting);
+            Best best = bests[weighting];
+            if (best == null || hardScore > best.hardScore()
+                    || (hardScore == best.hardScore() && softScore > best.softScore())) {
+                bests[weighting] = new Best(hardScore, softScore, solution);
+            }
+        }
+    }
+
+    /**
+     * Soluzione proposta con lo score migliore per la pesatura con indice weighting, null se nessuna
+     * soluzione completa è stata proposta.
+     */
+    public MultiObjectiveSolution best(int weighting) {
+        return bests[weighting] != null ? bests[weighting].solution() : null;
+    }
+
+    private record Best(long hardScore, long softScore, MultiObjectiveSolution solution) {
+    }
+}
@@ -0,0 +1,11 @@
+package unical.demacs.rdm.utils;
+
+/**
+ * Modello di pianificazione usato da OptaPlanner.
+ * GRAIN: ogni job sceglie macchina e orario di inizio su una griglia, le sovrapposizioni sono un vincolo hard.
+ * CHAINED: ogni macchina è l'inizio di una catena ordinata di job, gli orari sono calcolati dal predecessore.
+ */
+public enum PlanningModel {
+    GRAIN,
+    CHAINED
+}
@@ -0,0 +1,94 @@
+package unical.demacs.rdm.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import unical.demacs.rdm.persistence.event.ChangeType;
+import unical.demacs.rdm.persistence.event.MachineChangedEvent;
+import unical.demacs.rdm.persistence.event.ScheduleChangedEvent;
+
+import java.util.Optional;
+
+/**
+ * Pianificazione continua: una sola sessione in tempo reale alla volta, eseguita come solve asincrono
+ * (stato, score, eventi SSE e terminazione passano dalle API dei solve). Le modifiche a schedule e macchine
+ * pubblicate dai servizi vengono inoltrate al solver attivo dopo il commit della transazione.
+ * La sessione occupa un thread di solveJobExecutor finché non viene fermata.
+ */
+@Slf4j
+@Service
+public class RealTimePlanner {
+    private final Scheduler scheduler;
+    private final SolveJobManager solveJobManager;
+    private volatile SolveJob solveJob;
+    private volatile RealTimeSession session;
+
+    public RealTimePlanner(Scheduler scheduler, SolveJobManager solveJobManager) {
+        this.scheduler = scheduler;
+        this.solveJobManager = solveJobManager;
+    }
+
+    /**
+     * Avvia la sessione, oppure restituisce quella già attiva.
+     */
+    public synchronized SolveJob start(String criterion, SolverOptions options) {
+        if (solveJob != null && !solveJob.isDone()) {
+            log.info("Pianificazione in tempo reale già attiva: solve {}", solveJob.getProblemId());
+            return solveJob;
+        }
+        session = null;
+        solveJob = solveJobManager.submit(criterion, options, (jobCriterion, jobOptions) ->
+                scheduler.scheduleContinuously(jobCriterion, jobOptions, started -> session = started));
+        return solveJob;
+    }
+
+    public synchronized Optional<SolveJob> stop() {
+        Optional<SolveJob> current = current();
+        current.ifPresent(job -> solveJobManager.cancel(job.getProblemId()));
+        return current;
+    }
+
+    public Optional<SolveJob> current() {
+        return Optional.ofNullable(solveJob);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        activeSession().ifPresent(active -> {
+            if (event.changeType() == ChangeType.DELETED) {
+                active.scheduleDeleted(event.schedule().getId());
+            } else {
+                active.scheduleSaved(event.schedule());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMachineChanged(MachineChangedEvent event) {
+        activeSession().ifPresent(active -> {
+            if (event.changeType() == ChangeType.DELETED) {
+                active.machineDeleted(event.machine().getId());
+            } else {
+                active.machineSaved(event.machine());
+            }
+        });
+    }
+
+    /**
+     * Inoltra i nuovi pesi alla sessione attiva, se pianifica con lo stesso criterio.
+     */
+    public void constraintWeightsChanged(String criterion, ScheduleConstraintConfiguration constraintConfiguration) {
+        SolveJob current = solveJob;
+        if (current != null && current.getCriterion().equals(criterion)) {
+            activeSession().ifPresent(active -> active.constraintWeightsChanged(constraintConfiguration));
+        }
+    }
+
+    private Optional<RealTimeSession> activeSession() {
+        SolveJob current = solveJob;
+        if (current == null || current.isDone()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(session);
+    }
+}
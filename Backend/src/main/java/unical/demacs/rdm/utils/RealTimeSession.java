@@ -0,0 +1,178 @@
+package unical.demacs.rdm.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.change.ProblemChangeDirector;
+import unical.demacs.rdm.persistence.entities.Machine;
+import unical.demacs.rdm.persistence.entities.Schedule;
+import unical.demacs.rdm.persistence.enums.MachineStatus;
+import unical.demacs.rdm.persistence.enums.ScheduleStatus;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Sessione di pianificazione in tempo reale sul modello a grain. Le modifiche a schedule e macchine
+ * arrivano al solver demone come ProblemChange: il solver le applica alla soluzione di lavoro
+ * e riprende la ricerca da lì, costruendo solo le assegnazioni nuove o rimaste senza macchina.
+ */
+@Slf4j
+public class RealTimeSession {
+    private final Solver<ScheduleSolution> solver;
+    private final SolverFactMapper mapper;
+    private final TimeWindow timeWindow;
+    private final long grainSeconds;
+    private final CountableValueRange<Long> startTimeRange;
+
+    public RealTimeSession(Solver<ScheduleSolution> solver, SolverFactMapper mapper, TimeWindow timeWindow,
+                           long grainSeconds, CountableValueRange<Long> startTimeRange) {
+        this.solver = solver;
+        this.mapper = mapper;
+        this.timeWindow = timeWindow;
+        this.grainSeconds = grainSeconds;
+        this.startTimeRange = startTimeRange;
+    }
+
+    /**
+     * Schedule creata o modificata: entra nel piano se è pianificabile, altrimenti ne esce
+     * (per esempio quando passa a COMPLETED).
+     */
+    public void scheduleSaved(Schedule schedule) {
+        if (schedule.getStartTime() == null || schedule.getStatus() == ScheduleStatus.COMPLETED) {
+            scheduleDeleted(schedule.getId());
+            return;
+        }
+        mapper.register(schedule);
+        SolverJob job = SolverFactMapper.toSolverJob(schedule);
+        solver.addProblemChange((solution, director) -> {
+            Optional<JobAssignment> existing = findAssignment(solution, job.getId());
+            if (existing.isEmpty()) {
+                JobAssignment assignment = new JobAssignment(job,
+                        machineRangeFor(solution.getMachines(), job.getRequiredMachineTypeId()), startTimeRangeFor(job));
+                director.addEntity(assignment, solution.getJobAssignments()::add);
+                log.debug("Tempo reale: aggiunta schedule {}", job.getId());
+                return;
+            }
+            JobAssignment assignment = existing.get();
+            boolean typeChanged = !Objects.equals(assignment.getRequiredMachineTypeId(), job.getRequiredMachineTypeId());
+            director.changeProblemProperty(assignment, changed -> {
+                changed.setJob(job);
+                changed.setMachineRange(machineRangeFor(solution.getMachines(), job.getRequiredMachineTypeId()));
+                changed.setStartTimeRange(startTimeRangeFor(job));
+            });
+            if (typeChanged) {
+                director.changeVariable(assignment, "assignedMachine", changed -> changed.setAssignedMachine(null));
+            }
+            if (assignment.isScheduled() && !assignment.getStartTimeRange().contains(assignment.getStartTime())) {
+                director.changeVariable(assignment, "startTime", changed -> changed.setStartTime(null));
+            }
+            log.debug("Tempo reale: aggiornata schedule {}", job.getId());
+        });
+    }
+
+    public void scheduleDeleted(long scheduleId) {
+        solver.addProblemChange((solution, director) ->
+                findAssignment(solution, scheduleId).ifPresent(assignment -> {
+                    director.removeEntity(assignment, solution.getJobAssignments()::remove);
+                    log.debug("Tempo reale: rimossa schedule {}", scheduleId);
+                }));
+    }
+
+    /**
+     * Macchina creata o modificata: una macchina BUSY esce dal piano e i suoi job vengono riassegnati,
+     * una macchina disponibile entra nel range dei job del suo tipo.
+     */
+    public void machineSaved(Machine machine) {
+        if (machine.getStatus() == MachineStatus.BUSY) {
+            machineDeleted(machine.getId());
+            return;
+        }
+        mapper.register(machine);
+        SolverMachine solverMachine = SolverFactMapper.toSolverMachine(machine);
+        solver.addProblemChange((solution, director) -> {
+            Optional<SolverMachine> existing = director.lookUpWorkingObject(solverMachine);
+            if (existing.isPresent() && existing.get().getMachineTypeId() == solverMachine.getMachineTypeId()) {
+                return;
+            }
+            existing.ifPresent(machineToRemove -> removeMachine(solution, director, machineToRemove));
+            director.addProblemFact(solverMachine, solution.getMachines()::add);
+            updateMachineRanges(solution, director);
+            log.debug("Tempo reale: macchina {} disponibile", machine.getId());
+        });
+    }
+
+    public void machineDeleted(long machineId) {
+        solver.addProblemChange((solution, director) -> solution.getMachines().stream()
+                .filter(machine -> machine.getId() == machineId)
+                .findFirst()
+                .ifPresent(machine -> {
+                    removeMachine(solution, director, machine);
+                    updateMachineRanges(solution, director);
+                    log.debug("Tempo reale: macchina {} non più disponibile", machineId);
+                }));
+    }
+
+    /**
+     * Nuovi pesi dei vincoli: il solver ricalcola lo score della soluzione corrente e prosegue da lì.
+     */
+    public void constraintWeightsChanged(ScheduleConstraintConfiguration constraintConfiguration) {
+        solver.addProblemChange((solution, director) -> {
+            director.changeProblemProperty(solution.getConstraintConfiguration(), changed ->
+                    constraintConfiguration.weights().forEach(changed::setWeight));
+            log.debug("Tempo reale: pesi dei vincoli aggiornati {}", constraintConfiguration);
+        });
+    }
+
+    private void removeMachine(ScheduleSolution solution, ProblemChangeDirector director, SolverMachine machine) {
+        for (JobAssignment assignment : solution.getJobAssignments()) {
+            if (assignment.getAssignedMachine() != null && assignment.getAssignedMachineId().equals(machine.getId())) {
+                director.changeVariable(assignment, "assignedMachine", changed -> changed.setAssignedMachine(null));
+            }
+        }
+        director.removeProblemFact(machine, solution.getMachines()::remove);
+    }
+
+    private void updateMachineRanges(ScheduleSolution solution, ProblemChangeDirector director) {
+        List<SolverMachine> machines = List.copyOf(solution.getMachines());
+        for (JobAssignment assignment : solution.getJobAssignments()) {
+            List<SolverMachine> machineRange = machineRangeFor(machines, assignment.getRequiredMachineTypeId());
+            if (!machineRange.equals(assignment.getMachineRange())) {
+                director.changeProblemProperty(assignment, changed -> changed.setMachineRange(machineRange));
+            }
+        }
+    }
+
+    /**
+     * Stessa regola della creazione delle assegnazioni: le macchine del tipo richiesto,
+     * oppure tutte se non ce ne sono.
+     */
+    private List<SolverMachine> machineRangeFor(List<SolverMachine> machines, Long requiredMachineTypeId) {
+        if (requiredMachineTypeId == null) {
+            return List.copyOf(machines);
+        }
+        List<SolverMachine> compatible = machines.stream()
+                .filter(machine -> machine.getMachineTypeId() == requiredMachineTypeId)
+                .toList();
+        return compatible.isEmpty() ? List.copyOf(machines) : compatible;
+    }
+
+    /**
+     * La griglia della sessione, estesa con lo stesso passo se il job arriva oltre la fine della finestra.
+     */
+    private CountableValueRange<Long> startTimeRangeFor(SolverJob job) {
+        long latestEnd = Math.max(job.getReleaseTime() + job.getDuration(),
+                job.getDueTime() != Long.MAX_VALUE ? job.getDueTime() : Long.MIN_VALUE);
+        if (latestEnd <= timeWindow.getEndTime()) {
+            return startTimeRange;
+        }
+        return TimeGrains.range(new TimeWindow(timeWindow.getStartTime(), latestEnd), grainSeconds);
+    }
+
+    private Optional<JobAssignment> findAssignment(ScheduleSolution solution, long scheduleId) {
+        return solution.getJobAssignments().stream()
+                .filter(assignment -> assignment.getScheduleId() == scheduleId)
+                .findFirst();
+    }
+}
@@ -3,39 +3,133 @@ package unical.demacs.rdm.utils;
 import lombok.Data;
 import org.optaplanner.core.api.domain.constraintweight.ConstraintConfiguration;
 import org.optaplanner.core.api.domain.constraintweight.ConstraintWeight;
+import org.optaplanner.core.api.domain.lookup.PlanningId;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pesi dei vincoli di ScheduleConstraintProvider e SequenceConstraintProvider. Il peso moltiplica
+ * l'impatto del match, quindi cambiarli non richiede di ricostruire le SolverFactory.
+ * I valori predefiniti sono i moltiplicatori che i provider usavano prima dei pesi configurabili.
+ */
 @Data
 @ConstraintConfiguration
 public class ScheduleConstraintConfiguration {
 
+    /**
+     * Serve al solver per ritrovare la configurazione di lavoro quando una ProblemChange cambia i pesi.
+     */
+    @PlanningId
+    private Long id = 0L;
+
+    @ConstraintWeight("Assignment required")
+    private HardSoftScore assignmentRequired = HardSoftScore.ofHard(100000);
+
     @ConstraintWeight("Machine conflict")
-    private HardSoftScore machineConflict = HardSoftScore.ofHard(1);
+    private HardSoftScore machineConflict = HardSoftScore.ofHard(1000);
 
     @ConstraintWeight("Machine type compatibility")
     private HardSoftScore machineTypeCompatibility = HardSoftScore.ofHard(1000);
 
     @ConstraintWeight("Job due date")
-    private HardSoftScore jobDueDate = HardSoftScore.ofHard(1);
+    private HardSoftScore jobDueDate = HardSoftScore.ofHard(100);
+
+    @ConstraintWeight("Jobs must start after start date")
+    private HardSoftScore jobsStartAfterStartDate = HardSoftScore.ofHard(1000);
 
     @ConstraintWeight("High priority jobs first")
-    private HardSoftScore highPriorityJobsFirst = HardSoftScore.ofSoft(2500);
+    private HardSoftScore highPriorityJobsFirst = HardSoftScore.ofSoft(2000);
 
     @ConstraintWeight("Short duration jobs first")
-    private HardSoftScore shortDurationJobsFirst = HardSoftScore.ofSoft(1);
+    private HardSoftScore shortDurationJobsFirst = HardSoftScore.ofSoft(2);
 
     @ConstraintWeight("Balance machine load")
-    private HardSoftScore balanceMachineLoad = HardSoftScore.ofSoft(1000);
+    private HardSoftScore balanceMachineLoad = HardSoftScore.ofSoft(50);
+
+    @ConstraintWeight("Encourage assignment")
+    private HardSoftScore encourageAssignment = HardSoftScore.ofSoft(2000);
+
+    @ConstraintWeight("Distribute jobs across machines")
+    private HardSoftScore distributeJobsAcrossMachines = HardSoftScore.ofSoft(500);
+
+    /**
+     * Pesi dei vincoli per un criterio di schedulazione: si parte dai predefiniti e il criterio scelto
+     * domina gli obiettivi soft. I pesi hard restano quelli predefiniti, tranne il ritardo nel criterio
+     * due-date, che resta comunque sotto il conflitto di macchina: un job in ritardo costa meno di una
+     * sovrapposizione.
+     */
+    public static ScheduleConstraintConfiguration forCriterion(String criterion) {
+        ScheduleConstraintConfiguration config = new ScheduleConstraintConfiguration();
+
+        switch (criterion) {
+            case "priority":
+                config.setShortDurationJobsFirst(HardSoftScore.ofSoft(1));
+                break;
+            case "due-date":
+                config.setJobDueDate(HardSoftScore.ofHard(500));
+                config.setHighPriorityJobsFirst(HardSoftScore.ofSoft(1));
+                config.setShortDurationJobsFirst(HardSoftScore.ofSoft(1));
+                break;
+            case "duration":
+                config.setShortDurationJobsFirst(HardSoftScore.ofSoft(20));
+                config.setHighPriorityJobsFirst(HardSoftScore.ofSoft(1));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown scheduling criterion: " + criterion);
+        }
+
+        return config;
+    }
+
+    /**
+     * Pesi indicizzati per nome del vincolo.
+     */
+    public Map<String, HardSoftScore> weights() {
+        Map<String, HardSoftScore> weights = new LinkedHashMap<>();
+        weights.put("Assignment required", assignmentRequired);
+        weights.put("Machine conflict", machineConflict);
+        weights.put("Machine type compatibility", machineTypeCompatibility);
+        weights.put("Job due date", jobDueDate);
+        weights.put("Jobs must start after start date", jobsStartAfterStartDate);
+        weights.put("High priority jobs first", highPriorityJobsFirst);
+        weights.put("Short duration jobs first", shortDurationJobsFirst);
+        weights.put("Balance machine load", balanceMachineLoad);
+        weights.put("Encourage assignment", encourageAssignment);
+        weights.put("Distribute jobs across machines", distributeJobsAcrossMachines);
+        return weights;
+    }
+
+    public void setWeight(String constraintName, HardSoftScore weight) {
+        switch (constraintName) {
+            case "Assignment required" -> assignmentRequired = weight;
+            case "Machine conflict" -> machineConflict = weight;
+            case "Machine type compatibility" -> machineTypeCompatibility = weight;
+            case "Job due date" -> jobDueDate = weight;
+            case "Jobs must start after start date" -> jobsStartAfterStartDate = weight;
+            case "High priority jobs first" -> highPriorityJobsFirst = weight;
+            case "Short duration jobs first" -> shortDurationJobsFirst = weight;
+            case "Balance machine load" -> balanceMachineLoad = weight;
+            case "Encourage assignment" -> encourageAssignment = weight;
+            case "Distribute jobs across machines" -> distributeJobsAcrossMachines = weight;
+            default -> throw new IllegalArgumentException("Unknown constraint: " + constraintName);
+        }
+    }
 
     @Override
     public String toString() {
         return "ScheduleConstraintConfiguration{" +
-                "machineConflict=" + machineConflict +
+                "assignmentRequired=" + assignmentRequired +
+                ", machineConflict=" + machineConflict +
                 ", machineTypeCompatibility=" + machineTypeCompatibility +
                 ", jobDueDate=" + jobDueDate +
+                ", jobsStartAfterStartDate=" + jobsStartAfterStartDate +
                 ", highPriorityJobsFirst=" + highPriorityJobsFirst +
                 ", shortDurationJobsFirst=" + shortDurationJobsFirst +
                 ", balanceMachineLoad=" + balanceMachineLoad +
+                ", encourageAssignment=" + encourageAssignment +
+                ", distributeJobsAcrossMachines=" + distributeJobsAcrossMachines +
                 '}';
     }
 }
@@ -1,14 +1,16 @@
 package unical.demacs.rdm.utils;
 
-import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 import org.optaplanner.core.api.score.stream.*;
 import org.optaplanner.core.api.score.stream.Joiners;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.ZoneOffset;
 import static org.optaplanner.core.api.score.stream.ConstraintCollectors.sum;
 
+/**
+ * Vincoli del modello a grain. I pesi vengono dalla ScheduleConstraintConfiguration della soluzione:
+ * qui c'è solo l'impatto di ogni match.
+ */
 public class ScheduleConstraintProvider implements ConstraintProvider {
     private static final Logger log = LoggerFactory.getLogger(ScheduleConstraintProvider.class);
 
@@ -20,7 +22,9 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
                 assignmentRequired(constraintFactory),
                 machineConflict(constraintFactory),
                 machineTypeCompatibility(constraintFactory),
-                
+                respectDueDates(constraintFactory),
+                jobsStartAfterStartDate(constraintFactory),
+
                 // Soft constraints
                 encourageAssignment(constraintFactory),
                 balanceMachineLoad(constraintFactory),
@@ -32,21 +36,16 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
 
     // ---------------------- Hard ----------------------
 
+    /**
+     * forEach considera solo assegnazioni inizializzate, quindi macchina e orario non sono null.
+     * Il joiner overlapping indicizza gli intervalli [inizio, fine) invece di filtrare ogni coppia.
+     */
     private Constraint machineConflict(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEachUniquePair(JobAssignment.class,
-                        Joiners.equal(JobAssignment::getAssignedMachine))
-                .filter((ja1, ja2) -> {
-                    if (ja1.getStartTimeInSeconds() == null || ja2.getStartTimeInSeconds() == null) {
-                        return false;
-                    }
-                    long ja1Start = ja1.getStartTimeInSeconds();
-                    long ja1End = ja1.getEndTimeInSeconds();
-                    long ja2Start = ja2.getStartTimeInSeconds();
-                    long ja2End = ja2.getEndTimeInSeconds();
-                    return (ja1Start < ja2End && ja2Start < ja1End);
-                })
-                .penalize(HardSoftScore.ONE_HARD.multiply(1000))
+                        Joiners.equal(JobAssignment::getAssignedMachineId),
+                        Joiners.overlapping(JobAssignment::getStartTimeInSeconds, JobAssignment::getEndTimeInSeconds))
+                .penalizeConfigurable()
                 .asConstraint("Machine conflict");
     }
 
@@ -54,42 +53,33 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
         return constraintFactory
                 .forEach(JobAssignment.class)
                 .filter(ja -> ja.getAssignedMachine() != null &&
-                        ja.getSchedule().getMachineType() != null &&
-                        !ja.getAssignedMachine().getMachine_type_id().equals(ja.getSchedule().getMachineType()))
-                .penalize(HardSoftScore.ONE_HARD.multiply(1000))
+                        ja.getRequiredMachineTypeId() != null &&
+                        ja.getRequiredMachineTypeId() != ja.getAssignedMachineTypeId())
+                .penalizeConfigurable()
                 .asConstraint("Machine type compatibility");
     }
 
     private Constraint respectDueDates(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEach(JobAssignment.class)
-                .filter(ja -> {
-                    if (ja.getStartTimeInSeconds() == null || ja.getSchedule().getDueDate() == null)
-                        return false;
-                    return ja.getEndTimeInSeconds() >
-                            ja.getSchedule().getDueDate().toEpochSecond(ZoneOffset.UTC);
-                })
-                .penalize(HardSoftScore.ONE_HARD.multiply(100))
+                .filter(ja -> ja.isScheduled() && ja.getEndTimeInSeconds() > ja.getDueTime())
+                .penalizeConfigurable()
                 .asConstraint("Job due date");
     }
 
     private Constraint jobsStartAfterStartDate(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEach(JobAssignment.class)
-                .filter(ja -> {
-                    if (ja.getStartTimeGrain() == null) return false;
-                    return ja.getStartTimeInSeconds() <
-                            ja.getSchedule().getStartTime().toEpochSecond(ZoneOffset.UTC);
-                })
-                .penalize(HardSoftScore.ONE_HARD.multiply(1000))
+                .filter(ja -> ja.isScheduled() && ja.getStartTimeInSeconds() < ja.getReleaseTime())
+                .penalizeConfigurable()
                 .asConstraint("Jobs must start after start date");
     }
 
     private Constraint assignmentRequired(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEach(JobAssignment.class)
-                .filter(ja -> ja.getAssignedMachine() == null || ja.getStartTimeGrain() == null)
-                .penalize(HardSoftScore.ONE_HARD.multiply(100000))
+                .filter(ja -> ja.getAssignedMachine() == null || !ja.isScheduled())
+                .penalizeConfigurable()
                 .asConstraint("Assignment required");
     }
 
@@ -98,50 +88,43 @@ public class ScheduleConstraintProvider implements ConstraintProvider {
     private Constraint balanceMachineLoad(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEach(JobAssignment.class)
-                .groupBy(JobAssignment::getAssignedMachine,
-                        sum(ja -> Math.toIntExact(ja.getSchedule().getDuration())))
-                .penalize(HardSoftScore.ONE_SOFT.multiply(50),  // Reduced weight
-                        (machine, totalDuration) -> totalDuration / 3600)
+                .groupBy(JobAssignment::getAssignedMachineId,
+                        sum(ja -> Math.toIntExact(ja.getDuration())))
+                .penalizeConfigurable((machine, totalDuration) -> totalDuration / 3600)
                 .asConstraint("Balance machine load");
     }
 
     private Constraint prioritizeHighPriorityJobs(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEach(JobAssignment.class)
-                .filter(ja -> ja.getStartTimeGrain() != null)
-                .penalize(HardSoftScore.ONE_SOFT.multiply(2000),
-                        ja -> {
-                            int priorityFactor = (3 - ja.getSchedule().getJob().getPriority().ordinal());
-                            long timeDelay = (ja.getStartTimeInSeconds() - 
-                                ja.getSchedule().getStartTime().toEpochSecond(ZoneOffset.UTC)) / 3600;
-                            return (int)(priorityFactor * timeDelay * timeDelay);
-                        })
+                .filter(JobAssignment::isScheduled)
+                .penalizeConfigurable(ja -> {
+                    long timeDelay = (ja.getStartTimeInSeconds() - ja.getReleaseTime()) / 3600;
+                    return (int)(ja.getPriorityFactor() * timeDelay * timeDelay);
+                })
                 .asConstraint("High priority jobs first");
     }
 
     private Constraint prioritizeShortDurationJobs(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEach(JobAssignment.class)
-                .reward(HardSoftScore.ONE_SOFT.multiply(2),
-                        ja -> (int)(7200 - Math.min(ja.getSchedule().getDuration(), 7200)))
+                .rewardConfigurable(ja -> (int)(7200 - Math.min(ja.getDuration(), 7200)))
                 .asConstraint("Short duration jobs first");
     }
 
     private Constraint distributeJobsAcrossMachines(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEach(JobAssignment.class)
-                .groupBy(
-                    ja -> ja.getSchedule().getMachineType().getId()
-                )
-                .reward(HardSoftScore.ONE_SOFT.multiply(500))
+                .groupBy(JobAssignment::getRequiredMachineTypeId)
+                .rewardConfigurable()
                 .asConstraint("Distribute jobs across machines");
     }
 
     private Constraint encourageAssignment(ConstraintFactory constraintFactory) {
         return constraintFactory
                 .forEach(JobAssignment.class)
-                .filter(ja -> ja.getAssignedMachine() != null && ja.getStartTimeGrain() != null)
-                .reward(HardSoftScore.ONE_SOFT.multiply(2000))
+                .filter(ja -> ja.getAssignedMachine() != null && ja.isScheduled())
+                .rewardConfigurable()
                 .asConstraint("Encourage assignment");
     }
 
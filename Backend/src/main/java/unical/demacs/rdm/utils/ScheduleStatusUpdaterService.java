@@ -1,14 +1,18 @@
 package unical.demacs.rdm.utils;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import unical.demacs.rdm.persistence.entities.Schedule;
 import unical.demacs.rdm.persistence.enums.ScheduleStatus;
+import unical.demacs.rdm.persistence.event.ChangeType;
+import unical.demacs.rdm.persistence.event.ScheduleChangedEvent;
 import unical.demacs.rdm.persistence.repository.ScheduleRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -16,6 +20,7 @@ import java.util.List;
 public class ScheduleStatusUpdaterService {
 
     private final ScheduleRepository scheduleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Scheduled(fixedRate = 60000) // ILARIA TODO: ragionare su frequenza
     @Transactional
@@ -27,11 +32,18 @@ public class ScheduleStatusUpdaterService {
                 now
         );
 
+        List<Schedule> changedSchedules = new ArrayList<>();
         for (Schedule schedule : activeSchedules) {
+            ScheduleStatus previousStatus = schedule.getStatus();
             updateScheduleStatus(schedule, now);
+            if (schedule.getStatus() != previousStatus) {
+                changedSchedules.add(schedule);
+            }
         }
 
         scheduleRepository.saveAll(activeSchedules);
+        changedSchedules.forEach(schedule ->
+                eventPublisher.publishEvent(new ScheduleChangedEvent(schedule, ChangeType.SAVED)));
     }
 
 
@@ -1,19 +1,15 @@
 package unical.demacs.rdm.utils;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
-import org.optaplanner.core.api.solver.*;
-import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
-import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicType;
-import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
-import org.optaplanner.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
-import org.optaplanner.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
-import org.optaplanner.core.config.solver.SolverConfig;
-import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.core.api.solver.Solver;
 import org.springframework.stereotype.Service;
 import unical.demacs.rdm.config.ModelMapperExtended;
+import unical.demacs.rdm.config.SchedulerProperties;
 import unical.demacs.rdm.persistence.dto.ScheduleWithMachineDTO;
 import unical.demacs.rdm.persistence.entities.*;
 import unical.demacs.rdm.persistence.enums.MachineStatus;
@@ -25,53 +21,137 @@ import java.io.IOException;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class Scheduler {
+    private static final String DATA_DIR = "./data";
+
     private final ScheduleRepository scheduleRepository;
     private final MachineRepository machineRepository;
     private final ModelMapperExtended modelMapperExtended;
     private final ObjectMapper objectMapper;
+    private final SchedulerProperties schedulerProperties;
+    private final ExecutorService schedulerExecutor;
+    private final ExecutorService partitionExecutor;
+    private final ExecutorService portfolioExecutor;
+    private final SolverFactoryCache solverFactoryCache;
+    private final ConstraintWeights constraintWeights;
 
-    private static final long SECONDS_SPENT_LIMIT = 30L;
+    /**
+     * Esegue tutti i criteri di schedulazione e salva un file per ciascuno.
+     * In modalità parallela le schedule vengono caricate una sola volta e ogni run
+     * lavora su una propria copia, così il tempo totale è circa quello di un solo solve.
+     *
+     * @return i risultati indicizzati per tipo di schedulazione
+     */
+    public Map<String, List<Schedule>> scheduleByEveryType() {
+        return scheduleByEveryType(defaultSolverOptions());
+    }
 
-    public void scheduleByEveryType() {
+    public Map<String, List<Schedule>> scheduleByEveryType(SolverOptions options) {
         log.debug("Inizio schedulazione per ogni tipo");
-        scheduleByPriority();
-        scheduleByDueDate();
-        scheduleByDuration();
-        scheduleByFCFS();
-        scheduleByRR();
+        if (options.isMultiObjective()) {
+            return scheduleByEveryTypeMultiObjective(options);
+        }
+        if (!schedulerProperties.isParallel()) {
+            Map<String, List<Schedule>> results = new LinkedHashMap<>();
+            results.put("priority", scheduleByPriority(options));
+            results.put("due-date", scheduleByDueDate(options));
+            results.put("duration", scheduleByDuration(options));
+            results.put("fcfs", scheduleByFCFS());
+            results.put("rr", scheduleByRR());
+            return results;
+        }
+
+        List<Schedule> schedules = scheduleRepository.findAll();
+        List<Machine> availableMachines = getAvailableMachines();
+        log.debug("Schedules recuperate: {}, macchine disponibili: {}", schedules.size(), availableMachines.size());
+
+        Map<String, Function<List<Schedule>, List<Schedule>>> runs = new LinkedHashMap<>();
+        runs.put("priority", copy -> scheduleWithOptaPlanner(copy, availableMachines, "priority", options));
+        runs.put("due-date", copy -> scheduleWithOptaPlanner(copy, availableMachines, "due-date", options));
+        runs.put("duration", copy -> scheduleWithOptaPlanner(copy, availableMachines, "duration", options));
+        runs.put("fcfs", copy -> scheduleWithFCFS(copy, availableMachines));
+        runs.put("rr", copy -> scheduleWithRR(copy, availableMachines));
+
+        Map<String, Future<List<Schedule>>> futures = new LinkedHashMap<>();
+        runs.forEach((type, run) -> {
+            List<Schedule> copy = detachedCopy(schedules);
+            futures.put(type, schedulerExecutor.submit(() -> run.apply(copy)));
+        });
+
+        Map<String, List<Schedule>> results = new LinkedHashMap<>();
+        futures.forEach((type, future) -> results.put(type, awaitRun(type, future)));
+        results.forEach((type, result) -> saveSchedulesToFile(result, type));
+        return results;
     }
 
-    public void scheduleByPriority() {
+    /**
+     * Un solo solve multi-obiettivo per i tre criteri OptaPlanner, poi FCFS e RR su copie proprie.
+     */
+    private Map<String, List<Schedule>> scheduleByEveryTypeMultiObjective(SolverOptions options) {
+        List<Schedule> schedules = scheduleRepository.findAll();
+        List<Machine> availableMachines = getAvailableMachines();
+        log.debug("Schedules recuperate: {}, macchine disponibili: {}", schedules.size(), availableMachines.size());
+
+        Map<String, List<Schedule>> results = new LinkedHashMap<>(
+                scheduleWithMultiObjective(detachedCopy(schedules), availableMachines, options));
+        results.put("fcfs", scheduleWithFCFS(detachedCopy(schedules), availableMachines));
+        results.put("rr", scheduleWithRR(detachedCopy(schedules), availableMachines));
+        results.forEach((type, result) -> saveSchedulesToFile(result, type));
+        return results;
+    }
+
+    public List<Schedule> scheduleByPriority() {
+        return scheduleByPriority(defaultSolverOptions());
+    }
+
+    public List<Schedule> scheduleByPriority(SolverOptions options) {
         log.debug("Schedulazione basata sulla priorità");
         List<Schedule> schedules = scheduleRepository.findAll();
         log.debug("Schedules recuperate: {}", schedules.size());
-        List<Schedule> priorityResult = scheduleWithOptaPlanner(schedules, "priority");
+        List<Schedule> priorityResult = scheduleWithOptaPlanner(schedules, "priority", options);
         saveSchedulesToFile(priorityResult, "priority");
+        return priorityResult;
     }
 
-    public void scheduleByDueDate() {
+    public List<Schedule> scheduleByDueDate() {
+        return scheduleByDueDate(defaultSolverOptions());
+    }
+
+    public List<Schedule> scheduleByDueDate(SolverOptions options) {
         log.debug("Schedulazione basata sulla data di scadenza");
         List<Schedule> schedules = scheduleRepository.findAll();
         log.debug("Schedules recuperate: {}", schedules.size());
-        List<Schedule> dueDateResult = scheduleWithOptaPlanner(schedules, "due-date");
+        List<Schedule> dueDateResult = scheduleWithOptaPlanner(schedules, "due-date", options);
         saveSchedulesToFile(dueDateResult, "due-date");
+        return dueDateResult;
+    }
+
+    public List<Schedule> scheduleByDuration() {
+        return scheduleByDuration(defaultSolverOptions());
     }
 
-    public void scheduleByDuration() {
+    public List<Schedule> scheduleByDuration(SolverOptions options) {
         log.debug("Schedulazione basata sulla durata");
         List<Schedule> schedules = scheduleRepository.findAll();
         log.debug("Schedules recuperate: {}", schedules.size());
-        List<Schedule> durationResult = scheduleWithOptaPlanner(schedules, "duration");
+        List<Schedule> durationResult = scheduleWithOptaPlanner(schedules, "duration", options);
         saveSchedulesToFile(durationResult, "duration");
+        return durationResult;
     }
 
-    public void scheduleByFCFS() {
+    public List<Schedule> scheduleByFCFS() {
         log.debug("Schedulazione basata sul First-Come-First-Served");
         List<Schedule> schedules = scheduleRepository.findAll();
         log.debug("Schedules recuperate: {}", schedules.size());
@@ -80,9 +160,10 @@ public class Scheduler {
         List<Schedule> fcfsResult = scheduleWithFCFS(schedules);
         // Salva i risultati
         saveSchedulesToFile(fcfsResult, "fcfs");
+        return fcfsResult;
     }
 
-    public void scheduleByRR() {
+    public List<Schedule> scheduleByRR() {
         log.debug("Schedulazione basata sul Round-Robin");
         List<Schedule> schedules = scheduleRepository.findAll();
         log.debug("Schedules recuperate: {}", schedules.size());
@@ -91,18 +172,97 @@ public class Scheduler {
         List<Schedule> rrResult = scheduleWithRR(schedules);
         // Salva i risultati
         saveSchedulesToFile(rrResult, "rr");
+        return rrResult;
+    }
+    /**
+     * Schedulazione a lista con una regola di dispatching: un piano in millisecondi quando un solve
+     * OptaPlanner sarebbe troppo lento. Il risultato va in job-scheduled-by-{regola}.json.
+     */
+    public List<Schedule> scheduleByDispatchingRule(DispatchingRule rule) {
+        log.debug("Schedulazione con la regola di dispatching {}", rule);
+        List<Schedule> schedules = scheduleRepository.findAll();
+        log.debug("Schedules recuperate: {}", schedules.size());
+
+        List<Schedule> result = scheduleWithDispatchingRule(schedules, getAvailableMachines(), rule);
+        saveSchedulesToFile(result, rule.criterion());
+        return result;
     }
+
+    /**
+     * Schedulazione con OptaPlanner per nome del criterio, usata dai solve asincroni.
+     */
+    public List<Schedule> scheduleByCriterion(String criterion, SolverOptions options) {
+        return switch (criterion) {
+            case "priority" -> scheduleByPriority(options);
+            case "due-date" -> scheduleByDueDate(options);
+            case "duration" -> scheduleByDuration(options);
+            default -> throw new IllegalArgumentException("Unknown scheduling criterion: " + criterion);
+        };
+    }
+
+    /**
+     * Pianificazione in tempo reale sul modello a grain: il solver resta attivo dopo aver trovato
+     * una soluzione e applica le modifiche ricevute dalla sessione ripartendo dal piano corrente.
+     * Blocca il thread chiamante finché il solve non viene terminato, poi salva il piano finale.
+     *
+     * @param onStart riceve la sessione prima dell'avvio del solver
+     */
+    public List<Schedule> scheduleContinuously(String criterion, SolverOptions options,
+                                               Consumer<RealTimeSession> onStart) {
+        log.info("Avvio pianificazione in tempo reale per il criterio: {}", criterion);
+        List<Schedule> validSchedules = filterValidSchedules(scheduleRepository.findAll());
+        List<Machine> availableMachines = getAvailableMachines();
+        if (availableMachines.isEmpty()) {
+            throw new IllegalStateException("No available machines found");
+        }
+
+        ScheduleConstraintConfiguration constraintConfiguration = constraintWeights.forCriterion(criterion);
+        SolverFactMapper mapper = new SolverFactMapper(validSchedules, availableMachines);
+        TimeWindow timeWindow = validSchedules.isEmpty()
+                ? defaultTimeWindow()
+                : calculateTimeWindow(validSchedules);
+        SchedulerProperties.Grain grain = schedulerProperties.getGrain();
+        long grainSeconds = TimeGrains.resolveGrainSeconds(validSchedules, timeWindow,
+                options.getGrainSeconds(), grain.getMinSeconds(), grain.getMaxCount());
+        CountableValueRange<Long> startTimeRange = createStartTimeRange(timeWindow, grainSeconds);
+        List<JobAssignment> jobAssignments = createPossibleAssignments(mapper.getJobs(), mapper.getMachines(),
+                startTimeRange);
+
+        Solver<ScheduleSolution> solver = solverFactoryCache.buildRealTimeSolver(criterion, options);
+        if (options.getSolveJob() != null) {
+            options.getSolveJob().attach(solver, 0L, ScheduleSolution::countAssignedJobs);
+        }
+        onStart.accept(new RealTimeSession(solver, mapper, timeWindow, grainSeconds, startTimeRange));
+
+        ScheduleSolution solution = createAndSolveProblem(solver, jobAssignments,
+                new ArrayList<>(mapper.getMachines()), constraintConfiguration);
+        List<Schedule> result = processSolution(solution, mapper);
+        saveSchedulesToFile(result, criterion);
+        return result;
+    }
+
+    public SolverOptions defaultSolverOptions() {
+        return SolverOptions.defaults(schedulerProperties);
+    }
+
     // -------------------- SCHEDULE LOGIC 'NAGG RO' CAZZ --------------------
 
-    private List<JobAssignment> createPossibleAssignments(List<Schedule> schedules, List<Machine> availableMachines) {
+    private List<JobAssignment> createPossibleAssignments(List<SolverJob> jobs, List<SolverMachine> availableMachines,
+                                                          CountableValueRange<Long> startTimeRange) {
         log.debug("Creazione delle possibili assegnazioni");
         List<JobAssignment> assignments = new ArrayList<>();
-        log.debug("Numero di schedules: {}, Macchine disponibili: {}", schedules.size(), availableMachines.size());
-
-        for (Schedule schedule : schedules) {
-            JobAssignment assignment = new JobAssignment(schedule);
+        log.debug("Numero di schedules: {}, Macchine disponibili: {}", jobs.size(), availableMachines.size());
+        Map<Long, List<SolverMachine>> machinesByType = availableMachines.stream()
+                .collect(Collectors.groupingBy(SolverMachine::getMachineTypeId));
+
+        for (SolverJob job : jobs) {
+            // Senza macchine compatibili il job resta libero su tutte e lo penalizza il vincolo hard
+            List<SolverMachine> machineRange = job.getRequiredMachineTypeId() != null
+                    ? machinesByType.getOrDefault(job.getRequiredMachineTypeId(), availableMachines)
+                    : availableMachines;
+            JobAssignment assignment = new JobAssignment(job, machineRange, startTimeRange);
             assignments.add(assignment);
-            log.debug("Creata assegnazione per schedule {} con macchine disponibili", schedule.getId());
+            log.debug("Creata assegnazione per schedule {} con {} macchine compatibili", job.getId(), machineRange.size());
         }
 
         log.debug("Numero totale di assegnazioni: {}", assignments.size());
@@ -139,25 +299,23 @@ public class Scheduler {
         return new TimeWindow(startTime, endTime);
     }
 
-    private List<TimeGrain> createTimeGrains(TimeWindow timeWindow) {
-        log.debug("Creazione dei TimeGrains");
-        List<TimeGrain> timeGrains = new ArrayList<>();
-        int grainIndex = 0;
-        long currentTime = timeWindow.getStartTime();
-        int grainLengthInSeconds = 60;
-        log.debug("TimeWindow start: {}, end: {}", timeWindow.getStartTime(), timeWindow.getEndTime());
-
-        while (currentTime <= timeWindow.getEndTime()) {
-            timeGrains.add(new TimeGrain(grainIndex++, currentTime));
-            log.debug("Creato TimeGrain index: {}, startTimeInSeconds: {}", grainIndex - 1, currentTime);
-            currentTime += grainLengthInSeconds;
-        }
+    /**
+     * Finestra di una settimana da adesso, per una sessione in tempo reale che parte senza schedule.
+     */
+    private TimeWindow defaultTimeWindow() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        return new TimeWindow(now.toEpochSecond(ZoneOffset.UTC), now.plusDays(7).toEpochSecond(ZoneOffset.UTC));
+    }
 
-        log.info("Creati {} TimeGrains", timeGrains.size());
-        return timeGrains;
+    private CountableValueRange<Long> createStartTimeRange(TimeWindow timeWindow, long grainLengthInSeconds) {
+        log.debug("Creazione del range degli orari di inizio");
+        log.debug("TimeWindow start: {}, end: {}", timeWindow.getStartTime(), timeWindow.getEndTime());
+        CountableValueRange<Long> startTimeRange = TimeGrains.range(timeWindow, grainLengthInSeconds);
+        log.info("Range di {} orari di inizio da {}s", startTimeRange.getSize(), grainLengthInSeconds);
+        return startTimeRange;
     }
 
-    private List<Schedule> processSolution(ScheduleSolution solution) {
+    private List<Schedule> processSolution(ScheduleSolution solution, SolverFactMapper mapper) {
         if (solution == null) {
             log.error("Soluzione non valida");
             return Collections.emptyList();
@@ -167,22 +325,23 @@ public class Scheduler {
         List<Schedule> finalSchedules = new ArrayList<>();
 
         for (JobAssignment assignment : solution.getJobAssignments()) {
-            Schedule schedule = assignment.getSchedule();
+            Schedule schedule = mapper.schedule(assignment.getScheduleId());
             
-            if (assignment.getAssignedMachine() != null && assignment.getStartTimeGrain() != null) {
+            if (assignment.getAssignedMachine() != null && assignment.isScheduled()) {
                 LocalDateTime startTime = LocalDateTime.ofEpochSecond(
-                        assignment.getStartTimeGrain().getStartTimeInSeconds(),
+                        assignment.getStartTimeInSeconds(),
                         0,
                         ZoneOffset.UTC
                 );
+                Machine machine = mapper.machine(assignment.getAssignedMachineId());
 
                 schedule.setStartTime(startTime);
-                schedule.setMachineType(assignment.getAssignedMachine().getMachine_type_id());
-                schedule.setMachine(assignment.getAssignedMachine());
+                schedule.setMachineType(machine.getMachine_type_id());
+                schedule.setMachine(machine);
                 schedule.setStatus(ScheduleStatus.SCHEDULED);
                 finalSchedules.add(schedule);
                 log.debug("Schedule {} assegnata alla macchina {} all'orario {}", 
-                    schedule.getId(), assignment.getAssignedMachine().getId(), startTime);
+                    schedule.getId(), machine.getId(), startTime);
             } else {
                 log.warn("Job {} non assegnato, ritento con configurazione più permissiva", schedule.getId());
             }
@@ -191,68 +350,583 @@ public class Scheduler {
         return finalSchedules;
     }
 
-    private ScheduleConstraintConfiguration configureConstraints(String criterion) {
-        ScheduleConstraintConfiguration config = new ScheduleConstraintConfiguration();
-
-        switch (criterion) {
-            case "priority":
-                config.setHighPriorityJobsFirst(HardSoftScore.ofSoft(1000));
-                config.setJobDueDate(HardSoftScore.ofHard(1));
-                config.setMachineConflict(HardSoftScore.ofHard(1));
-                config.setShortDurationJobsFirst(HardSoftScore.ofSoft(1));
-                config.setBalanceMachineLoad(HardSoftScore.ofSoft(500));
-                break;
-            case "due-date":
-                config.setJobDueDate(HardSoftScore.ofHard(1000));
-                config.setHighPriorityJobsFirst(HardSoftScore.ofSoft(1));
-                config.setMachineConflict(HardSoftScore.ofHard(1));
-                config.setShortDurationJobsFirst(HardSoftScore.ofSoft(1));
-                config.setBalanceMachineLoad(HardSoftScore.ofSoft(500));
-                break;
-            case "duration":
-                config.setShortDurationJobsFirst(HardSoftScore.ofSoft(1000));
-                config.setHighPriorityJobsFirst(HardSoftScore.ofSoft(1));
-                config.setJobDueDate(HardSoftScore.ofHard(1));
-                config.setMachineConflict(HardSoftScore.ofHard(1));
-                config.setBalanceMachineLoad(HardSoftScore.ofSoft(500));
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown scheduling criterion: " + criterion);
-        }
-
-        return config;
-    }
-
-    private List<Schedule> scheduleWithOptaPlanner(List<Schedule> schedules, String criterion) {
+    private List<Schedule> processSequenceSolution(SequenceSolution solution, SolverFactMapper mapper) {
+        log.info("Elaborazione della soluzione CHAINED con score: {}", solution.getScore());
+        List<Schedule> finalSchedules = new ArrayList<>();
+
+        for (MachineSequence sequence : solution.getMachineSequences()) {
+            Machine machine = mapper.machine(sequence.getId());
+            for (SequencedJob job = sequence.getNextJob(); job != null; job = job.getNextJob()) {
+                Schedule schedule = mapper.schedule(job.getId());
+                LocalDateTime startTime = LocalDateTime.ofEpochSecond(job.getStartTime(), 0, ZoneOffset.UTC);
+
+                schedule.setStartTime(startTime);
+                schedule.setMachineType(machine.getMachine_type_id());
+                schedule.setMachine(machine);
+                schedule.setStatus(ScheduleStatus.SCHEDULED);
+                finalSchedules.add(schedule);
+                log.debug("Schedule {} assegnata alla macchina {} all'orario {}",
+                        schedule.getId(), machine.getId(), startTime);
+            }
+        }
+
+        return finalSchedules;
+    }
+
+    private List<Schedule> scheduleWithOptaPlanner(List<Schedule> schedules, String criterion, SolverOptions options) {
+        return scheduleWithOptaPlanner(schedules, getAvailableMachines(), criterion, options);
+    }
+
+    private List<Schedule> scheduleWithOptaPlanner(List<Schedule> schedules, List<Machine> availableMachines,
+                                                   String criterion, SolverOptions options) {
         log.info("Starting scheduling process for criterion: {}", criterion);
 
+        LocalDateTime now = LocalDateTime.now();
         List<Schedule> validSchedules = filterValidSchedules(schedules);
+        if (options.isRollingHorizon()) {
+            validSchedules = filterPlanningHorizon(validSchedules, now);
+            availableMachines = withRunningMachines(validSchedules, availableMachines);
+        }
         if (validSchedules.isEmpty()) {
             log.warn("No valid schedules to process");
             return Collections.emptyList();
         }
 
-        List<Machine> availableMachines = getAvailableMachines();
         if (availableMachines.isEmpty()) {
             log.error("No available machines found");
             return Collections.emptyList();
         }
 
-        List<JobAssignment> jobAssignments = createPossibleAssignments(validSchedules, availableMachines);
+        ScheduleConstraintConfiguration constraintConfiguration = constraintWeights.forCriterion(criterion);
+        SolverFactMapper mapper = new SolverFactMapper(validSchedules, availableMachines);
+        List<SolverFactMapper.Partition> partitions = options.isPartitioned()
+                ? mapper.partitionByMachineType()
+                : List.of();
+        if (options.isPartitioned() && partitions.isEmpty()) {
+            log.warn("Schedule senza tipo di macchina o senza macchine compatibili: solve non partizionato");
+        }
+        SolverOptions partitionOptions = options.toBuilder()
+                .concurrentPartitions(Math.min(partitions.size(), schedulerProperties.getPartitionParallelism()))
+                .build();
+
+        Set<Long> pinnedIds = options.isRollingHorizon()
+                ? pinnedScheduleIds(validSchedules, availableMachines, now)
+                : Set.of();
+        WarmStart warmStart = loadWarmStart(criterion, validSchedules, availableMachines, pinnedIds, options);
+
+        if (options.getModel() == PlanningModel.CHAINED) {
+            SequenceSolution solution = partitions.isEmpty()
+                    ? solveSequences(criterion, options, mapper.getJobs(), mapper.getMachines(),
+                            warmStart, constraintConfiguration)
+                    : mergeSequenceSolutions(solvePartitions(partitions, partition -> solveSequences(criterion, partitionOptions,
+                            partition.jobs(), partition.machines(), warmStart, constraintConfiguration)),
+                            constraintConfiguration);
+            return processSequenceSolution(solution, mapper);
+        }
+
         TimeWindow timeWindow = calculateTimeWindow(validSchedules);
-        List<TimeGrain> timeGrainRange = createTimeGrains(timeWindow);
-        ScheduleConstraintConfiguration constraintConfiguration = configureConstraints(criterion);
+        SchedulerProperties.Grain grain = schedulerProperties.getGrain();
+        long grainSeconds = TimeGrains.resolveGrainSeconds(validSchedules, timeWindow,
+                options.getGrainSeconds(), grain.getMinSeconds(), grain.getMaxCount());
+
+        ScheduleSolution solution = partitions.isEmpty()
+                ? solveGrains(criterion, options, mapper.getJobs(), mapper.getMachines(),
+                        timeWindow, grainSeconds, warmStart, constraintConfiguration)
+                : mergeSolutions(solvePartitions(partitions, partition -> solveGrains(criterion, partitionOptions,
+                        partition.jobs(), partition.machines(), timeWindow, grainSeconds, warmStart,
+                        constraintConfiguration)), constraintConfiguration);
+        return processSolution(solution, mapper);
+    }
 
-        ScheduleSolution solution = createAndSolveProblem(
-                jobAssignments,
-                availableMachines,
-                timeGrainRange,
-                constraintConfiguration
-        );
-        return processSolution(solution);
+    /**
+     * Risolve i tre criteri OptaPlanner con un solo solve a score multi-livello e restituisce,
+     * per ogni criterio, il best del solve combinato che ha lo score migliore per la sua pesatura:
+     * un'approssimazione del solve dedicato al criterio (vedi MultiObjectiveTracker).
+     * Usa solo il modello a grain, senza partizioni, due passi o portfolio.
+     */
+    private Map<String, List<Schedule>> scheduleWithMultiObjective(List<Schedule> schedules,
+                                                                   List<Machine> availableMachines,
+                                                                   SolverOptions options) {
+        log.info("Starting multi-objective scheduling for criteria: {}", SolverFactoryCache.CRITERIA);
+        Map<String, List<Schedule>> results = new LinkedHashMap<>();
+        SolverFactoryCache.CRITERIA.forEach(criterion -> results.put(criterion, Collections.emptyList()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Schedule> validSchedules = filterValidSchedules(schedules);
+        if (options.isRollingHorizon()) {
+            validSchedules = filterPlanningHorizon(validSchedules, now);
+            availableMachines = withRunningMachines(validSchedules, availableMachines);
+        }
+        if (validSchedules.isEmpty()) {
+            log.warn("No valid schedules to process");
+            return results;
+        }
+        if (availableMachines.isEmpty()) {
+            log.error("No available machines found");
+            return results;
+        }
+        if (options.isPartitioned() || options.isTwoPass() || options.isPortfolio()
+                || options.getModel() == PlanningModel.CHAINED) {
+            log.warn("Solve multi-obiettivo: partizioni, due passi, portfolio e modello CHAINED ignorati");
+        }
+
+        SolverFactMapper mapper = new SolverFactMapper(validSchedules, availableMachines);
+        Set<Long> pinnedIds = options.isRollingHorizon()
+                ? pinnedScheduleIds(validSchedules, availableMachines, now)
+                : Set.of();
+        WarmStart warmStart = loadWarmStart(SolverFactoryCache.CRITERIA.get(0), validSchedules, availableMachines,
+                pinnedIds, options);
+
+        TimeWindow timeWindow = calculateTimeWindow(validSchedules);
+        SchedulerProperties.Grain grain = schedulerProperties.getGrain();
+        long grainSeconds = TimeGrains.resolveGrainSeconds(validSchedules, timeWindow,
+                options.getGrainSeconds(), grain.getMinSeconds(), grain.getMaxCount());
+        CountableValueRange<Long> startTimeRange = createStartTimeRange(timeWindow, grainSeconds);
+        List<JobAssignment> jobAssignments = createPossibleAssignments(mapper.getJobs(), mapper.getMachines(),
+                startTimeRange);
+        logWarmStart(warmStart, warmStart.apply(jobAssignments), jobAssignments.size());
+
+        MultiObjectiveConstraintConfiguration constraintConfiguration = MultiObjectiveConstraintConfiguration.of(
+                SolverFactoryCache.CRITERIA.stream().map(constraintWeights::forCriterion).toList());
+        MultiObjectiveTracker tracker = new MultiObjectiveTracker(constraintConfiguration);
+        Solver<MultiObjectiveSolution> solver =
+                solverFactoryCache.buildMultiObjectiveSolver(options, mapper.getJobs().size());
+        solver.addEventListener(tracker);
+
+        long start = System.currentTimeMillis();
+        MultiObjectiveSolution solution;
+        try {
+            solution = solver.solve(new MultiObjectiveSolution(jobAssignments, mapper.getMachines(),
+                    constraintConfiguration));
+        } catch (Exception e) {
+            log.error("Solver fallito con errore: {}", e.getMessage(), e);
+            throw new RuntimeException("Impossibile risolvere il problema di schedulazione", e);
+        }
+        tracker.offer(solution);
+        log.info("Solve multi-obiettivo: {} grain da {}s, solve in {} ms, score {}",
+                startTimeRange.getSize(), grainSeconds, System.currentTimeMillis() - start, solution.getScore());
+
+        for (int weighting = 0; weighting < SolverFactoryCache.CRITERIA.size(); weighting++) {
+            String criterion = SolverFactoryCache.CRITERIA.get(weighting);
+            MultiObjectiveSolution best = tracker.best(weighting) != null ? tracker.best(weighting) : solution;
+            log.info("Criterio {}: score {}, soft della pesatura {}", criterion, best.getScore(),
+                    best.getScore() != null ? constraintConfiguration.softScore(best.getScore(), weighting) : null);
+            // Ogni criterio ha le proprie istanze di Schedule
+            SolverFactMapper criterionMapper = new SolverFactMapper(detachedCopy(validSchedules), availableMachines);
+            results.put(criterion, processSolution(new ScheduleSolution(best.getJobAssignments(), best.getMachines(),
+                    constraintWeights.forCriterion(criterion)), criterionMapper));
+        }
+        return results;
+    }
+
+    private ScheduleSolution solveGrains(String criterion, SolverOptions options, List<SolverJob> jobs,
+                                         List<SolverMachine> availableMachines, TimeWindow timeWindow, long grainSeconds,
+                                         WarmStart warmStart, ScheduleConstraintConfiguration constraintConfiguration) {
+        if (options.isTwoPass()) {
+            return solveCoarseToFine(criterion, options, jobs, availableMachines,
+                    timeWindow, grainSeconds, warmStart, constraintConfiguration);
+        }
+        CountableValueRange<Long> startTimeRange = createStartTimeRange(timeWindow, grainSeconds);
+        if (options.isPortfolio()) {
+            return solvePortfolioPass("single", criterion, options, jobs, availableMachines, grainSeconds,
+                    startTimeRange, warmStart, constraintConfiguration);
+        }
+        List<JobAssignment> jobAssignments = createPossibleAssignments(jobs, availableMachines, startTimeRange);
+        logWarmStart(warmStart, warmStart.apply(jobAssignments), jobAssignments.size());
+        Solver<ScheduleSolution> solver = track(options,
+                solverFactoryCache.buildSolver(criterion, options, jobs.size()), jobs, ScheduleSolution::countAssignedJobs);
+        return solvePass("single", solver, grainSeconds,
+                startTimeRange.getSize(), jobAssignments, availableMachines, constraintConfiguration);
+    }
+
+    /**
+     * Risolve ogni partizione sul pool delle partizioni: il tempo totale segue la partizione più grande.
+     */
+    private <S> List<S> solvePartitions(List<SolverFactMapper.Partition> partitions,
+                                        Function<SolverFactMapper.Partition, S> solve) {
+        log.info("Solve partizionato su {} tipi di macchina", partitions.size());
+        long start = System.currentTimeMillis();
+        Map<String, Future<S>> futures = new LinkedHashMap<>();
+        for (SolverFactMapper.Partition partition : partitions) {
+            futures.put("machine-type-" + partition.machineTypeId(),
+                    partitionExecutor.submit(() -> solve.apply(partition)));
+        }
+
+        List<S> solutions = new ArrayList<>();
+        futures.forEach((partition, future) -> solutions.add(awaitRun(partition, future)));
+        log.info("Solve partizionato completato in {} ms", System.currentTimeMillis() - start);
+        return solutions;
+    }
+
+    private ScheduleSolution mergeSolutions(List<ScheduleSolution> partials,
+                                            ScheduleConstraintConfiguration constraintConfiguration) {
+        List<JobAssignment> jobAssignments = new ArrayList<>();
+        List<SolverMachine> machines = new ArrayList<>();
+        HardSoftScore score = HardSoftScore.ZERO;
+        for (ScheduleSolution partial : partials) {
+            jobAssignments.addAll(partial.getJobAssignments());
+            machines.addAll(partial.getMachines());
+            score = score.add(partial.getScore());
+        }
+        ScheduleSolution merged = new ScheduleSolution(jobAssignments, machines, constraintConfiguration);
+        merged.setScore(score);
+        return merged;
+    }
+
+    private SequenceSolution mergeSequenceSolutions(List<SequenceSolution> partials,
+                                                    ScheduleConstraintConfiguration constraintConfiguration) {
+        SequenceSolution merged = new SequenceSolution();
+        merged.setConstraintConfiguration(constraintConfiguration);
+        merged.setMachineSequences(new ArrayList<>());
+        merged.setJobs(new ArrayList<>());
+        HardSoftScore score = HardSoftScore.ZERO;
+        for (SequenceSolution partial : partials) {
+            merged.getMachineSequences().addAll(partial.getMachineSequences());
+            merged.getJobs().addAll(partial.getJobs());
+            score = score.add(partial.getScore());
+        }
+        merged.setScore(score);
+        return merged;
+    }
+
+    /**
+     * Primo passo su grain grossolani, poi raffinamento degli orari sui grain fini limitato
+     * a un intorno di ogni assegnazione. Le macchine scelte nel primo passo restano il punto
+     * di partenza del secondo. Il warm start inizializza il primo passo.
+     */
+    private ScheduleSolution solveCoarseToFine(String criterion, SolverOptions options, List<SolverJob> jobs,
+                                               List<SolverMachine> availableMachines, TimeWindow timeWindow, long fineSeconds,
+                                               WarmStart warmStart, ScheduleConstraintConfiguration constraintConfiguration) {
+        SchedulerProperties.Grain grain = schedulerProperties.getGrain();
+        long coarseSeconds = TimeGrains.coarseGrainSeconds(timeWindow, fineSeconds, grain.getCoarseMaxCount());
+
+        CountableValueRange<Long> coarseRange = createStartTimeRange(timeWindow, coarseSeconds);
+        ScheduleSolution coarseSolution;
+        if (options.isPortfolio()) {
+            coarseSolution = solvePortfolioPass("coarse", criterion, options, jobs, availableMachines, coarseSeconds,
+                    coarseRange, warmStart, constraintConfiguration);
+        } else {
+            List<JobAssignment> coarseAssignments = createPossibleAssignments(jobs, availableMachines, coarseRange);
+            logWarmStart(warmStart, warmStart.apply(coarseAssignments), coarseAssignments.size());
+            Solver<ScheduleSolution> coarseSolver = track(options,
+                    solverFactoryCache.buildSolver(criterion, options, jobs.size()), jobs,
+                    ScheduleSolution::countAssignedJobs);
+            coarseSolution = solvePass("coarse", coarseSolver, coarseSeconds,
+                    coarseRange.getSize(), coarseAssignments, availableMachines, constraintConfiguration);
+        }
+        if (coarseSeconds == fineSeconds) {
+            return coarseSolution;
+        }
+
+        long radiusSeconds = grain.getRefineRadius() * coarseSeconds;
+        TimeGrains.FineGrid fineGrid = new TimeGrains.FineGrid(timeWindow, fineSeconds);
+        List<JobAssignment> fineAssignments = new ArrayList<>();
+        long fineGrainCount = 0;
+        for (JobAssignment coarse : coarseSolution.getJobAssignments()) {
+            // Un job rimasto senza orario viene cercato attorno al suo orario di rilascio
+            long center = coarse.isScheduled() ? coarse.getStartTimeInSeconds() : coarse.getReleaseTime();
+            JobAssignment fine = new JobAssignment(coarse.getJob(), coarse.getMachineRange(),
+                    fineGrid.around(center, radiusSeconds));
+            if (coarse.isScheduled()) {
+                fine.setAssignedMachine(coarse.getAssignedMachine());
+                fine.setStartTime(coarse.isPinned() ? center : fineGrid.at(center));
+                fine.setPinned(coarse.isPinned());
+            }
+            fineGrainCount += fine.getStartTimeRange().getSize();
+            fineAssignments.add(fine);
+        }
+
+        Solver<ScheduleSolution> fineSolver = track(options, solverFactoryCache.buildRefineSolver(criterion, options),
+                jobs, ScheduleSolution::countAssignedJobs);
+        return solvePass("fine", fineSolver, fineSeconds,
+                fineGrainCount, fineAssignments, availableMachines, constraintConfiguration);
+    }
+
+    /**
+     * Modello CHAINED: ogni macchina riceve una catena ordinata di job e gli orari sono
+     * calcolati dal predecessore, senza griglia temporale.
+     */
+    private SequenceSolution solveSequences(String criterion, SolverOptions options, List<SolverJob> jobs,
+                                            List<SolverMachine> availableMachines, WarmStart warmStart,
+                                            ScheduleConstraintConfiguration constraintConfiguration) {
+        Supplier<SequenceSolution> problemFactory = () -> {
+            SequenceSolution problem = new SequenceSolution(jobs, availableMachines, constraintConfiguration);
+            logWarmStart(warmStart, warmStart.apply(problem), jobs.size());
+            return problem;
+        };
+        long start = System.currentTimeMillis();
+        try {
+            SequenceSolution solution;
+            if (options.isPortfolio()) {
+                solution = solvePortfolio("chained", options, jobs,
+                        member -> solverFactoryCache.buildSequenceSolver(criterion, member, jobs.size()),
+                        problemFactory, SequenceSolution::getScore, SequenceSolution::countAssignedJobs);
+            } else {
+                Solver<SequenceSolution> solver = track(options,
+                        solverFactoryCache.buildSequenceSolver(criterion, options, jobs.size()), jobs,
+                        SequenceSolution::countAssignedJobs);
+                solution = solver.solve(problemFactory.get());
+            }
+            log.info("Modello CHAINED: {} job su {} macchine, solve in {} ms, score {}",
+                    jobs.size(), availableMachines.size(), System.currentTimeMillis() - start, solution.getScore());
+            return solution;
+        } catch (Exception e) {
+            log.error("Solver fallito con errore: {}", e.getMessage(), e);
+            throw new RuntimeException("Impossibile risolvere il problema di schedulazione", e);
+        }
+    }
+
+    /**
+     * Orizzonte mobile: restano nel solve le schedule in esecuzione e quelle rilasciate entro
+     * l'orizzonte di pianificazione; le altre aspettano un solve successivo.
+     */
+    private List<Schedule> filterPlanningHorizon(List<Schedule> schedules, LocalDateTime now) {
+        LocalDateTime horizonEnd = now.plusHours(schedulerProperties.getHorizon().getPlanningHours());
+        List<Schedule> planned = schedules.stream()
+                .filter(s -> s.getStatus() == ScheduleStatus.IN_PROGRESS || s.getStartTime().isBefore(horizonEnd))
+                .collect(Collectors.toList());
+        log.info("Orizzonte mobile fino a {}: {} schedule pianificate, {} rimandate",
+                horizonEnd.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), planned.size(),
+                schedules.size() - planned.size());
+        return planned;
+    }
+
+    /**
+     * Macchine del solve con orizzonte mobile: quelle disponibili più quelle BUSY che eseguono una
+     * schedule IN_PROGRESS, così il job in corso resta sulla sua macchina e ne occupa il tempo.
+     */
+    private List<Machine> withRunningMachines(List<Schedule> schedules, List<Machine> availableMachines) {
+        Set<Long> machineIds = availableMachines.stream().map(Machine::getId).collect(Collectors.toSet());
+        List<Machine> machines = new ArrayList<>(availableMachines);
+        schedules.stream()
+                .filter(s -> s.getStatus() == ScheduleStatus.IN_PROGRESS && s.getMachine() != null)
+                .map(Schedule::getMachine)
+                .filter(machine -> machineIds.add(machine.getId()))
+                .forEach(machines::add);
+        if (machines.size() > availableMachines.size()) {
+            log.info("Orizzonte mobile: {} macchine occupate da schedule in esecuzione",
+                    machines.size() - availableMachines.size());
+        }
+        return machines;
+    }
+
+    /**
+     * Schedule che il solve non sposta: quelle IN_PROGRESS e quelle SCHEDULED che partono entro
+     * la finestra congelata, purché la loro macchina sia tra quelle del solve. Le macchine delle
+     * schedule IN_PROGRESS ci sono sempre (withRunningMachines).
+     */
+    private Set<Long> pinnedScheduleIds(List<Schedule> schedules, List<Machine> availableMachines, LocalDateTime now) {
+        LocalDateTime frozenUntil = now.plusMinutes(schedulerProperties.getHorizon().getFrozenMinutes());
+        Set<Long> machineIds = availableMachines.stream().map(Machine::getId).collect(Collectors.toSet());
+        Set<Long> pinnedIds = schedules.stream()
+                .filter(s -> s.getMachine() != null && machineIds.contains(s.getMachine().getId()))
+                .filter(s -> s.getStatus() == ScheduleStatus.IN_PROGRESS
+                        || (s.getStatus() == ScheduleStatus.SCHEDULED && s.getStartTime().isBefore(frozenUntil)))
+                .map(Schedule::getId)
+                .collect(Collectors.toSet());
+        log.info("Orizzonte mobile: {} schedule bloccate fino a {}", pinnedIds.size(),
+                frozenUntil.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        return pinnedIds;
+    }
+
+    /**
+     * Semi del warm start: il piano dell'euristica di seme, se richiesta, poi macchina e orario già
+     * presenti sulle schedule, sostituiti dall'ultimo piano salvato per il criterio quando il file esiste.
+     * Un file illeggibile viene ignorato.
+     * Le schedule bloccate partono sempre da macchina e orario correnti, anche senza warm start.
+     */
+    private WarmStart loadWarmStart(String criterion, List<Schedule> schedules, List<Machine> availableMachines,
+                                    Set<Long> pinnedIds, SolverOptions options) {
+        SeedHeuristic seedHeuristic = options.getSeedHeuristic() != null
+                ? options.getSeedHeuristic()
+                : SeedHeuristic.NONE;
+        if (!options.isWarmStart() && pinnedIds.isEmpty() && seedHeuristic == SeedHeuristic.NONE) {
+            return WarmStart.NONE;
+        }
+        Map<Long, WarmStart.Seed> seeds = new HashMap<>();
+        if (seedHeuristic != SeedHeuristic.NONE) {
+            seeds.putAll(heuristicSeeds(seedHeuristic, schedules, availableMachines, pinnedIds));
+        }
+        if (options.isWarmStart()) {
+            schedules.stream()
+                    .filter(schedule -> schedule.getMachine() != null)
+                    .forEach(schedule -> seeds.put(schedule.getId(), seedOf(schedule)));
+            seeds.putAll(loadLastPlan(criterion));
+        }
+        schedules.stream()
+                .filter(schedule -> pinnedIds.contains(schedule.getId()))
+                .forEach(schedule -> seeds.put(schedule.getId(), seedOf(schedule)));
+        return new WarmStart(seeds, pinnedIds);
+    }
+
+    /**
+     * Piano iniziale calcolato dall'euristica su una copia delle schedule non bloccate:
+     * le schedule originali restano intatte per il solve.
+     */
+    private Map<Long, WarmStart.Seed> heuristicSeeds(SeedHeuristic seedHeuristic, List<Schedule> schedules,
+                                                     List<Machine> availableMachines, Set<Long> pinnedIds) {
+        long start = System.currentTimeMillis();
+        List<Schedule> copies = detachedCopy(schedules.stream()
+                .filter(schedule -> !pinnedIds.contains(schedule.getId()))
+                .toList());
+        Map<Long, WarmStart.Seed> seeds = new HashMap<>();
+        seedHeuristic.assign(copies, availableMachines, schedulerProperties.getDispatching().getAtcK())
+                .forEach(schedule -> seeds.put(schedule.getId(), seedOf(schedule)));
+        log.info("Seme {}: {} schedule su {} assegnate in {} ms", seedHeuristic, seeds.size(), copies.size(),
+                System.currentTimeMillis() - start);
+        return seeds;
+    }
+
+    private WarmStart.Seed seedOf(Schedule schedule) {
+        return new WarmStart.Seed(schedule.getMachine().getId(), schedule.getStartTime().toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private Map<Long, WarmStart.Seed> loadLastPlan(String criterion) {
+        Map<Long, WarmStart.Seed> seeds = new HashMap<>();
+        File file = scheduleFile(criterion);
+        if (!file.exists()) {
+            return seeds;
+        }
+        try {
+            List<ScheduleWithMachineDTO> lastPlan = objectMapper.readValue(file, new TypeReference<>() {
+            });
+            for (ScheduleWithMachineDTO dto : lastPlan) {
+                if (dto.getId() != null && dto.getMachineId() != null && dto.getStartTime() != null) {
+                    seeds.put(dto.getId(), new WarmStart.Seed(dto.getMachineId(),
+                            dto.getStartTime().toEpochSecond(ZoneOffset.UTC)));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Piano precedente non leggibile in {}, ignorato: {}", file, e.getMessage());
+            seeds.clear();
+        }
+        return seeds;
+    }
+
+    private void logWarmStart(WarmStart warmStart, int seeded, int total) {
+        if (warmStart != WarmStart.NONE) {
+            log.info("Warm start: {} job su {} già inizializzati", seeded, total);
+        }
+    }
+
+    private ScheduleSolution solvePortfolioPass(String pass, String criterion, SolverOptions options,
+                                                List<SolverJob> jobs, List<SolverMachine> availableMachines,
+                                                long grainSeconds, CountableValueRange<Long> startTimeRange,
+                                                WarmStart warmStart,
+                                                ScheduleConstraintConfiguration constraintConfiguration) {
+        long start = System.currentTimeMillis();
+        ScheduleSolution solution = solvePortfolio(pass, options, jobs,
+                member -> solverFactoryCache.buildSolver(criterion, member, jobs.size()),
+                () -> {
+                    List<JobAssignment> jobAssignments = createPossibleAssignments(jobs, availableMachines, startTimeRange);
+                    logWarmStart(warmStart, warmStart.apply(jobAssignments), jobAssignments.size());
+                    return new ScheduleSolution(jobAssignments, new ArrayList<>(availableMachines), constraintConfiguration);
+                },
+                ScheduleSolution::getScore, ScheduleSolution::countAssignedJobs);
+        log.info("Passo {}: {} grain da {}s, solve a portfolio in {} ms, score {}",
+                pass, startTimeRange.getSize(), grainSeconds, System.currentTimeMillis() - start, solution.getScore());
+        return solution;
+    }
+
+    /**
+     * Solve a portfolio: ogni configurazione risolve in parallelo la propria copia del problema
+     * con lo stesso limite di tempo, e vince lo score migliore. A parità di score vince
+     * la configurazione elencata prima.
+     */
+    private <S> S solvePortfolio(String pass, SolverOptions options, List<SolverJob> jobs,
+                                 Function<SolverOptions, Solver<S>> solverBuilder, Supplier<S> problemFactory,
+                                 Function<S, HardSoftScore> scoreOf, ToIntFunction<S> assignedJobsCounter) {
+        Map<String, Future<S>> futures = new LinkedHashMap<>();
+        for (SolverOptions member : portfolioMembers(options)) {
+            S problem = problemFactory.get();
+            Solver<S> solver = solverBuilder.apply(member);
+            if (options.getSolveJob() != null && !jobs.isEmpty()) {
+                options.getSolveJob().attach(solver, jobs.get(0).getId(), assignedJobsCounter, true);
+            }
+            futures.put(member.getStrategy() + "/seed=" + member.getRandomSeed(),
+                    portfolioExecutor.submit(() -> solver.solve(problem)));
+        }
+
+        String winner = null;
+        S best = null;
+        for (Map.Entry<String, Future<S>> entry : futures.entrySet()) {
+            S solution = awaitRun(entry.getKey(), entry.getValue());
+            log.info("Portfolio passo {}: {} con score {}", pass, entry.getKey(), scoreOf.apply(solution));
+            if (best == null || scoreOf.apply(solution).compareTo(scoreOf.apply(best)) > 0) {
+                best = solution;
+                winner = entry.getKey();
+            }
+        }
+        log.info("Portfolio passo {}: vince {}", pass, winner);
+        if (options.getSolveJob() != null && !jobs.isEmpty()) {
+            options.getSolveJob().recordWinningStrategy(jobs.get(0).getId(), winner);
+        }
+        return best;
+    }
+
+    /**
+     * Una configurazione per strategia del portfolio, ognuna con il proprio seed. Corrono solo
+     * le prime strategie che entrano nella quota di solver paralleli della partizione,
+     * così ogni configurazione in gara ha un core.
+     */
+    private List<SolverOptions> portfolioMembers(SolverOptions options) {
+        List<SolverStrategy> strategies = schedulerProperties.getPortfolio().getStrategies();
+        if (strategies.isEmpty()) {
+            return List.of(options.toBuilder().portfolio(false).build());
+        }
+        int width = portfolioWidth(schedulerProperties.getPortfolio().getParallelism(),
+                options.getConcurrentPartitions());
+        if (width < strategies.size()) {
+            log.info("Portfolio limitato a {} strategie su {}: {} partizioni in parallelo",
+                    width, strategies.size(), Math.max(1, options.getConcurrentPartitions()));
+        }
+        long baseSeed = options.getRandomSeed() != null ? options.getRandomSeed() : 0L;
+        List<SolverOptions> members = new ArrayList<>();
+        for (int i = 0; i < Math.min(width, strategies.size()); i++) {
+            members.add(options.toBuilder()
+                    .strategy(strategies.get(i))
+                    .randomSeed(baseSeed + i)
+                    .portfolio(false)
+                    .build());
+        }
+        return members;
+    }
+
+    /**
+     * Solver di un portfolio che corrono insieme: i solver paralleli divisi tra le partizioni
+     * in esecuzione, almeno uno.
+     */
+    static int portfolioWidth(int parallelism, int concurrentPartitions) {
+        return Math.max(1, parallelism / Math.max(1, concurrentPartitions));
+    }
+
+    /**
+     * Registra il solver sul solve asincrono della richiesta, se presente, per score e cancellazione.
+     * Le partizioni hanno job disgiunti, quindi il primo job identifica il sottoproblema.
+     */
+    private <S> Solver<S> track(SolverOptions options, Solver<S> solver, List<SolverJob> jobs,
+                                ToIntFunction<S> assignedJobsCounter) {
+        if (options.getSolveJob() != null && !jobs.isEmpty()) {
+            options.getSolveJob().attach(solver, jobs.get(0).getId(), assignedJobsCounter);
+        }
+        return solver;
+    }
+
+    private ScheduleSolution solvePass(String pass, Solver<ScheduleSolution> solver, long grainSeconds, long grainCount,
+                                       List<JobAssignment> jobAssignments, List<SolverMachine> availableMachines,
+                                       ScheduleConstraintConfiguration constraintConfiguration) {
+        long start = System.currentTimeMillis();
+        ScheduleSolution solution = createAndSolveProblem(solver, jobAssignments, availableMachines, constraintConfiguration);
+        log.info("Passo {}: {} grain da {}s, solve in {} ms, score {}",
+                pass, grainCount, grainSeconds, System.currentTimeMillis() - start, solution.getScore());
+        return solution;
     }
 
     private List<Schedule> scheduleWithFCFS(List<Schedule> schedules) {
+        return scheduleWithFCFS(schedules, getAvailableMachines());
+    }
+
+    private List<Schedule> scheduleWithFCFS(List<Schedule> schedules, List<Machine> availableMachines) {
         log.info("Starting scheduling process with FCFS");
 
         List<Schedule> validSchedules = filterValidSchedules(schedules);
@@ -261,7 +935,6 @@ public class Scheduler {
             return Collections.emptyList();
         }
 
-        List<Machine> availableMachines = getAvailableMachines();
         if (availableMachines.isEmpty()) {
             log.error("No available machines found");
             return Collections.emptyList();
@@ -270,14 +943,34 @@ public class Scheduler {
         // Ordina le schedule in base al tempo di inizio (startTime)
         validSchedules.sort(Comparator.comparing(Schedule::getStartTime));
 
-        // Assegna i job alle macchine con logica FCFS
-        assignJobsToMachinesFCFS(validSchedules, availableMachines);
+        // Assegna i job alle macchine con logica FCFS e restituisce quelli schedulati
+        return assignJobsToMachinesFCFS(validSchedules, availableMachines);
+    }
+
+    private List<Schedule> scheduleWithDispatchingRule(List<Schedule> schedules, List<Machine> availableMachines,
+                                                       DispatchingRule rule) {
+        log.info("Starting scheduling process with dispatching rule {}", rule);
 
-        // Restituisce la lista schedulata
-        return validSchedules;
+        List<Schedule> validSchedules = filterValidSchedules(schedules);
+        if (validSchedules.isEmpty()) {
+            log.warn("No valid schedules to process");
+            return Collections.emptyList();
+        }
+
+        if (availableMachines.isEmpty()) {
+            log.error("No available machines found");
+            return Collections.emptyList();
+        }
+
+        return DispatchingEngine.dispatch(validSchedules, availableMachines, rule,
+                schedulerProperties.getDispatching().getAtcK());
     }
 
     private List<Schedule> scheduleWithRR(List<Schedule> schedules) {
+        return scheduleWithRR(schedules, getAvailableMachines());
+    }
+
+    private List<Schedule> scheduleWithRR(List<Schedule> schedules, List<Machine> availableMachines) {
         log.info("Starting scheduling process with RR");
 
         List<Schedule> validSchedules = filterValidSchedules(schedules);
@@ -286,129 +979,112 @@ public class Scheduler {
             return Collections.emptyList();
         }
 
-        List<Machine> availableMachines = getAvailableMachines();
         if (availableMachines.isEmpty()) {
             log.error("No available machines found");
             return Collections.emptyList();
         }
 
-        // Assegna i job alle macchine con logica RR
-        assignJobsToMachinesRR(validSchedules, availableMachines);
-
-        // Restituisce la lista schedulata
-        return validSchedules;
+        // Assegna i job alle macchine con logica RR e restituisce quelli schedulati
+        return assignJobsToMachinesRR(validSchedules, availableMachines, schedulerProperties.getRoundRobin());
     }
 
-    private void assignJobsToMachinesFCFS(List<Schedule> schedules, List<Machine> machines) {
-        // Mantiene traccia di quando ogni macchina diventa libera
-        Map<Long, LocalDateTime> machineEndTimes = machines.stream()
-                .collect(Collectors.toMap(Machine::getId, m -> LocalDateTime.MIN));
+    /**
+     * FCFS per tipo di macchina: ogni schedule va sulla macchina compatibile che torna libera per prima,
+     * scelta da un heap per tipo con gli orari in secondi epoch, in O(log m) per schedule.
+     * Le schedule senza macchine compatibili non vengono assegnate e non compaiono nel risultato.
+     * Come assignJobsToMachinesRR è package-private e statico per poterlo misurare con JMH senza contesto Spring.
+     *
+     * @return le schedule assegnate, nell'ordine ricevuto
+     */
+    static List<Schedule> assignJobsToMachinesFCFS(List<Schedule> schedules, List<Machine> machines) {
+        Map<Long, MachineHeap> heapsByType = MachineHeap.byMachineType(machines);
+        List<Schedule> assigned = new ArrayList<>(schedules.size());
 
         for (Schedule schedule : schedules) {
-            // Trova la macchina che diventa libera prima
-            Machine bestMachine = machines.stream()
-                    .min(Comparator.comparing(machine -> machineEndTimes.get(machine.getId())))
-                    .orElseThrow(() -> new IllegalStateException("No available machines found"));
-
-            // Determina l'orario di inizio del job
-            LocalDateTime earliestAvailableTime = machineEndTimes.get(bestMachine.getId());
-            LocalDateTime jobStartTime = earliestAvailableTime.isAfter(schedule.getStartTime())
-                    ? earliestAvailableTime
-                    : schedule.getStartTime();
-
-            // Assegna il job alla macchina
+            MachineHeap heap = schedule.getMachineType() != null ? heapsByType.get(schedule.getMachineType().getId()) : null;
+            if (heap == null) {
+                log.warn("Schedule {} senza macchine compatibili disponibili, non assegnata", schedule.getId());
+                continue;
+            }
+
+            // La macchina compatibile che diventa libera prima; il job parte non prima del suo rilascio
+            Machine bestMachine = machines.get(heap.peekMachine());
+            long jobStartTime = Math.max(heap.peekFreeTime(), schedule.getStartTime().toEpochSecond(ZoneOffset.UTC));
+            long jobEndTime = jobStartTime + schedule.getDuration();
+            heap.updateTop(jobEndTime);
+
             schedule.setMachine(bestMachine);
-            schedule.setStartTime(jobStartTime);
+            schedule.setStartTime(LocalDateTime.ofEpochSecond(jobStartTime, 0, ZoneOffset.UTC));
             schedule.setStatus(ScheduleStatus.SCHEDULED);
-
-            // Calcola l'orario di fine job
-            LocalDateTime jobEndTime = jobStartTime.plusSeconds(schedule.getDuration());
-            // Aggiorna l'orario in cui la macchina sarà libera
-            machineEndTimes.put(bestMachine.getId(), jobEndTime);
+            assigned.add(schedule);
 
             log.debug("Schedule {} assegnata alla macchina {}: start at {}, end at {}",
                     schedule.getId(), bestMachine.getId(), jobStartTime, jobEndTime);
         }
+        return assigned;
     }
 
-    private void assignJobsToMachinesRR(List<Schedule> schedules, List<Machine> machines) {
-        // Mappa che tiene traccia di quando ogni macchina si libera
-        Map<Long, LocalDateTime> machineEndTimes = machines.stream()
-                .collect(Collectors.toMap(Machine::getId, m -> LocalDateTime.MIN));
-
-        // Indice per iterare ciclicamente tra le macchine
-        int machineIndex = 0;
+    /**
+     * Round robin pesato per tipo di macchina: ogni tipo ha la propria rotazione, in cui una macchina
+     * compare tante volte quanto il suo peso. Gli orari di fine delle macchine sono secondi epoch in un long[].
+     * Le schedule senza macchine compatibili non vengono assegnate e non compaiono nel risultato.
+     *
+     * @return le schedule assegnate, nell'ordine ricevuto
+     */
+    static List<Schedule> assignJobsToMachinesRR(List<Schedule> schedules, List<Machine> machines,
+                                                 SchedulerProperties.RoundRobin roundRobin) {
+        Map<Long, WeightedRotation> rotationsByType = WeightedRotation.byMachineType(machines,
+                roundRobin.getWeights(), roundRobin.getDefaultWeight());
+        // Orario in cui ogni macchina si libera, per indice nella lista
+        long[] machineEndTimes = new long[machines.size()];
+        Arrays.fill(machineEndTimes, Long.MIN_VALUE);
+        List<Schedule> assigned = new ArrayList<>(schedules.size());
 
         for (Schedule schedule : schedules) {
-            // Seleziona la macchina in base all'indice, ruotando ciclicamente
-            Machine currentMachine = machines.get(machineIndex);
+            WeightedRotation rotation = schedule.getMachineType() != null
+                    ? rotationsByType.get(schedule.getMachineType().getId())
+                    : null;
+            if (rotation == null) {
+                log.warn("Schedule {} senza macchine compatibili disponibili, non assegnata", schedule.getId());
+                continue;
+            }
 
-            // Calcola l'orario di inizio effettivo del job,
-            // confrontando lo startTime richiesto con l'orario di fine corrente della macchina
-            LocalDateTime earliestAvailableTime = machineEndTimes.get(currentMachine.getId());
-            LocalDateTime jobStartTime = earliestAvailableTime.isAfter(schedule.getStartTime())
-                    ? earliestAvailableTime
-                    : schedule.getStartTime();
+            // Macchina successiva nella rotazione del tipo; il job parte quando la macchina si libera
+            int machineIndex = rotation.next();
+            Machine currentMachine = machines.get(machineIndex);
+            long jobStartTime = Math.max(machineEndTimes[machineIndex],
+                    schedule.getStartTime().toEpochSecond(ZoneOffset.UTC));
+            long jobEndTime = jobStartTime + schedule.getDuration();
+            machineEndTimes[machineIndex] = jobEndTime;
 
-            // Assegna il job alla macchina
             schedule.setMachine(currentMachine);
-            schedule.setStartTime(jobStartTime);
+            schedule.setStartTime(LocalDateTime.ofEpochSecond(jobStartTime, 0, ZoneOffset.UTC));
             schedule.setStatus(ScheduleStatus.SCHEDULED);
-
-            // Calcola l'orario di fine job e aggiorna la disponibilità della macchina
-            LocalDateTime jobEndTime = jobStartTime.plusSeconds(schedule.getDuration());
-            machineEndTimes.put(currentMachine.getId(), jobEndTime);
+            assigned.add(schedule);
 
             log.debug("Schedule {} assegnata alla macchina {}: start at {}, end at {}",
                     schedule.getId(), currentMachine.getId(), jobStartTime, jobEndTime);
-
-            // Passa alla macchina successiva in modo circolare
-            machineIndex = (machineIndex + 1) % machines.size();
-        }
-    }
-
-    private SolverConfig createSolverConfig() {
-        return new SolverConfig()
-                .withSolutionClass(ScheduleSolution.class)
-                .withEntityClasses(JobAssignment.class)
-                .withConstraintProviderClass(ScheduleConstraintProvider.class)
-                .withTerminationConfig(new TerminationConfig()
-                        .withBestScoreLimit("0hard/*soft")
-                        .withSecondsSpentLimit(SECONDS_SPENT_LIMIT))
-                .withPhases(
-                        new ConstructionHeuristicPhaseConfig()
-                                .withConstructionHeuristicType(ConstructionHeuristicType.FIRST_FIT_DECREASING),
-                        new LocalSearchPhaseConfig()
-                                .withAcceptorConfig(new LocalSearchAcceptorConfig()
-                                        .withLateAcceptanceSize(1000)
-                                        .withEntityTabuSize(10))
-                                .withForagerConfig(new LocalSearchForagerConfig()
-                                        .withAcceptedCountLimit(8))
-                );
+        }
+        return assigned;
     }
 
     private ScheduleSolution createAndSolveProblem(
+            Solver<ScheduleSolution> solver,
             List<JobAssignment> jobAssignments,
-            List<Machine> machines,
-            List<TimeGrain> timeGrainRange,
+            List<SolverMachine> machines,
             ScheduleConstraintConfiguration constraintConfiguration) {
 
         log.debug("Creazione del problema di schedulazione");
         log.debug("Numero di jobAssignments: {}", jobAssignments.size());
         log.debug("Numero di macchine: {}", machines.size());
-        log.debug("Numero di timeGrains: {}", timeGrainRange.size());
         log.debug("Configurazione vincoli: {}", constraintConfiguration);
 
         ScheduleSolution problem = new ScheduleSolution(
                 jobAssignments,
                 machines,
-                timeGrainRange,
                 constraintConfiguration
         );
 
-        SolverFactory<ScheduleSolution> solverFactory = SolverFactory.create(createSolverConfig());
-        Solver<ScheduleSolution> solver = solverFactory.buildSolver();
-
         try {
             log.info("Avvio del solver...");
             ScheduleSolution solution = solver.solve(problem);
@@ -420,6 +1096,37 @@ public class Scheduler {
         }
     }
 
+    /**
+     * Crea una copia distaccata delle schedule, così che run concorrenti non modifichino
+     * le stesse istanze. Job, tipo macchina e macchina restano condivisi in sola lettura.
+     */
+    private List<Schedule> detachedCopy(List<Schedule> schedules) {
+        return schedules.stream()
+                .map(schedule -> Schedule.scheduleBuilder()
+                        .id(schedule.getId())
+                        .job(schedule.getJob())
+                        .machineType(schedule.getMachineType())
+                        .machine(schedule.getMachine())
+                        .dueDate(schedule.getDueDate())
+                        .startTime(schedule.getStartTime())
+                        .duration(schedule.getDuration())
+                        .status(schedule.getStatus())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private <T> T awaitRun(String type, Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Schedulazione interrotta per il tipo: " + type, e);
+        } catch (ExecutionException e) {
+            log.error("Schedulazione fallita per il tipo {}: {}", type, e.getCause().getMessage(), e.getCause());
+            throw new RuntimeException("Schedulazione fallita per il tipo: " + type, e.getCause());
+        }
+    }
+
     /**
      * Filtra le schedule valide.
      * - StartTime non nullo.
@@ -448,20 +1155,11 @@ public class Scheduler {
             return;
         }
 
-        List<ScheduleWithMachineDTO> scheduleDTOs = schedules.stream()
-                .map(schedule -> {
-                    ScheduleWithMachineDTO dto = modelMapperExtended.map(schedule, ScheduleWithMachineDTO.class);
-                    dto.setJobId(schedule.getJob().getId());
-                    dto.setMachineTypeId(schedule.getMachineType().getId());
-                    if (schedule.getMachine() != null) {
-                        dto.setMachineId(schedule.getMachine().getId());
-                    }
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        List<ScheduleWithMachineDTO> scheduleDTOs = toScheduleWithMachineDTOs(schedules);
 
-        String fileName = "./data/job-scheduled-by-" + type + ".json";
-        File dataDir = new File("./data");
+        File file = scheduleFile(type);
+        String fileName = file.getPath();
+        File dataDir = new File(DATA_DIR);
 
         if (!dataDir.exists() && !dataDir.mkdirs()) {
             log.error("Failed to create directory: {}", dataDir.getAbsolutePath());
@@ -469,11 +1167,29 @@ public class Scheduler {
         }
 
         try {
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(fileName), scheduleDTOs);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, scheduleDTOs);
             log.info("Successfully saved {} schedules to {}", schedules.size(), fileName);
         } catch (IOException e) {
             log.error("Failed to write schedule to file: {}", fileName, e);
             throw new RuntimeException("Failed to save schedule to file", e);
         }
     }
+
+    private File scheduleFile(String type) {
+        return new File(DATA_DIR, "job-scheduled-by-" + type + ".json");
+    }
+
+    public List<ScheduleWithMachineDTO> toScheduleWithMachineDTOs(List<Schedule> schedules) {
+        return schedules.stream()
+                .map(schedule -> {
+                    ScheduleWithMachineDTO dto = modelMapperExtended.map(schedule, ScheduleWithMachineDTO.class);
+                    dto.setJobId(schedule.getJob().getId());
+                    dto.setMachineTypeId(schedule.getMachineType().getId());
+                    if (schedule.getMachine() != null) {
+                        dto.setMachineId(schedule.getMachine().getId());
+                    }
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
 }
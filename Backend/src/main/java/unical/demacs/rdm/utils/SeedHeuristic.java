@@ -0,0 +1,33 @@
+package unical.demacs.rdm.utils;
+
+import unical.demacs.rdm.persistence.entities.Machine;
+import unical.demacs.rdm.persistence.entities.Schedule;
+
+import java.util.List;
+
+/**
+ * Euristica veloce che fornisce il piano iniziale di un solve OptaPlanner. Con un seme la ricerca
+ * locale parte da un piano già ammissibile e l'euristica di costruzione assegna solo le schedule
+ * che il seme non copre. NONE lascia tutto all'euristica di costruzione.
+ */
+public enum SeedHeuristic {
+    NONE,
+    FCFS,
+    EDD,
+    SPT,
+    WSPT,
+    ATC;
+
+    /**
+     * Assegna macchina e orario alle schedule ricevute, che vengono modificate.
+     *
+     * @return le schedule assegnate; vuoto per NONE
+     */
+    public List<Schedule> assign(List<Schedule> schedules, List<Machine> machines, double atcK) {
+        return switch (this) {
+            case NONE -> List.of();
+            case FCFS -> Scheduler.assignJobsToMachinesFCFS(schedules, machines);
+            default -> DispatchingEngine.dispatch(schedules, machines, DispatchingRule.valueOf(name()), atcK);
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package unical.demacs.rdm.utils;
+
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+import static org.optaplanner.core.api.score.stream.ConstraintCollectors.sum;
+
+/**
+ * Vincoli del modello CHAINED. Le sovrapposizioni sulla stessa macchina sono impossibili per
+ * costruzione, quindi non serve il join a coppie del modello a grain.
+ * I pesi vengono dalla ScheduleConstraintConfiguration, come nel modello a grain.
+ */
+public class SequenceConstraintProvider implements ConstraintProvider {
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        return new Constraint[]{
+                // Hard constraints
+                machineTypeCompatibility(constraintFactory),
+                respectDueDates(constraintFactory),
+
+                // Soft constraints
+                balanceMachineLoad(constraintFactory),
+                prioritizeHighPriorityJobs(constraintFactory)
+        };
+    }
+
+    // ---------------------- Hard ----------------------
+
+    private Constraint machineTypeCompatibility(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(SequencedJob.class)
+                .filter(job -> job.getMachineSequence() != null &&
+                        job.getRequiredMachineTypeId() != null &&
+                        job.getRequiredMachineTypeId() != job.getMachineSequence().getMachineTypeId())
+                .penalizeConfigurable()
+                .asConstraint("Machine type compatibility");
+    }
+
+    private Constraint respectDueDates(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(SequencedJob.class)
+                .filter(job -> job.isScheduled() && job.getEndTimeInSeconds() > job.getDueTime())
+                .penalizeConfigurable(job -> (int) ((job.getEndTimeInSeconds() - job.getDueTime()) / 3600 + 1))
+                .asConstraint("Job due date");
+    }
+
+    // ---------------------- Soft ----------------------
+
+    private Constraint balanceMachineLoad(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(SequencedJob.class)
+                .filter(job -> job.getMachineSequence() != null)
+                .groupBy(SequencedJob::getMachineSequence,
+                        sum(job -> Math.toIntExact(job.getDuration())))
+                .penalizeConfigurable((sequence, totalDuration) -> totalDuration / 3600)
+                .asConstraint("Balance machine load");
+    }
+
+    private Constraint prioritizeHighPriorityJobs(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .forEach(SequencedJob.class)
+                .filter(SequencedJob::isScheduled)
+                .penalizeConfigurable(job -> {
+                    long timeDelay = (job.getStartTime() - job.getReleaseTime()) / 3600;
+                    return (int) (job.getPriorityFactor() * timeDelay * timeDelay);
+                })
+                .asConstraint("High priority jobs first");
+    }
+}
@@ -0,0 +1,52 @@
+package unical.demacs.rdm.utils;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.optaplanner.core.api.domain.constraintweight.ConstraintConfigurationProvider;
+import org.optaplanner.core.api.domain.solution.*;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Soluzione del modello CHAINED: una catena di job per ogni macchina disponibile.
+ */
+@Slf4j
+@PlanningSolution
+@NoArgsConstructor
+@Data
+public class SequenceSolution {
+
+    @ConstraintConfigurationProvider
+    private ScheduleConstraintConfiguration constraintConfiguration;
+
+    @ProblemFactCollectionProperty
+    @ValueRangeProvider(id = "machineSequenceRange")
+    private List<MachineSequence> machineSequences;
+
+    @PlanningEntityCollectionProperty
+    @ValueRangeProvider(id = "jobRange")
+    private List<SequencedJob> jobs;
+
+    @PlanningScore
+    private HardSoftScore score;
+
+    public SequenceSolution(List<SolverJob> jobs, List<SolverMachine> machines, ScheduleConstraintConfiguration constraintConfiguration) {
+        this.machineSequences = machines.stream().map(MachineSequence::new).collect(Collectors.toList());
+        this.jobs = jobs.stream().map(SequencedJob::new).collect(Collectors.toList());
+        this.constraintConfiguration = constraintConfiguration;
+        log.debug("Creata SequenceSolution con {} job, {} macchine", jobs.size(), machineSequences.size());
+    }
+
+    /**
+     * Numero di job inseriti nella catena di una macchina.
+     */
+    public int countAssignedJobs() {
+        return (int) jobs.stream()
+                .filter(job -> job.getPreviousStandstill() != null)
+                .count();
+    }
+}
@@ -0,0 +1,100 @@
+package unical.demacs.rdm.utils;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.entity.PlanningPin;
+import org.optaplanner.core.api.domain.lookup.PlanningId;
+import org.optaplanner.core.api.domain.variable.AnchorShadowVariable;
+import org.optaplanner.core.api.domain.variable.PlanningVariable;
+import org.optaplanner.core.api.domain.variable.PlanningVariableGraphType;
+import org.optaplanner.core.api.domain.variable.ShadowVariable;
+
+/**
+ * Job nel modello CHAINED. Si sceglie solo il predecessore (una macchina o un altro job):
+ * la macchina e l'orario di inizio sono shadow variable. Il job parte appena è rilasciato
+ * e il predecessore è terminato, quindi due job sulla stessa macchina non possono sovrapporsi.
+ */
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@PlanningEntity
+public class SequencedJob implements Standstill {
+
+    @PlanningId
+    @EqualsAndHashCode.Include
+    private Long id;
+    private SolverJob job;
+
+    @PlanningVariable(valueRangeProviderRefs = {"machineSequenceRange", "jobRange"},
+            graphType = PlanningVariableGraphType.CHAINED)
+    private Standstill previousStandstill;
+
+    @AnchorShadowVariable(sourceVariableName = "previousStandstill")
+    private MachineSequence machineSequence;
+
+    private SequencedJob nextJob;
+
+    /**
+     * Orario di inizio in secondi epoch (UTC), null finché il job non è in una catena.
+     */
+    @ShadowVariable(variableListenerClass = StartTimeUpdatingVariableListener.class,
+            sourceVariableName = "previousStandstill")
+    private Long startTime;
+
+    /**
+     * Job in testa alla catena che il solver non sposta: in esecuzione o nella finestra congelata.
+     */
+    @PlanningPin
+    private boolean pinned;
+
+    public SequencedJob(SolverJob job) {
+        this.id = job.getId();
+        this.job = job;
+    }
+
+    public boolean isScheduled() {
+        return startTime != null;
+    }
+
+    @Override
+    public Long getEndTime() {
+        return startTime != null ? startTime + job.getDuration() : null;
+    }
+
+    /**
+     * Da usare solo se {@link #isScheduled()}.
+     */
+    public long getEndTimeInSeconds() {
+        return startTime + job.getDuration();
+    }
+
+    public long getReleaseTime() {
+        return job.getReleaseTime();
+    }
+
+    public long getDueTime() {
+        return job.getDueTime();
+    }
+
+    public long getDuration() {
+        return job.getDuration();
+    }
+
+    public int getPriorityFactor() {
+        return job.getPriorityFactor();
+    }
+
+    public Long getRequiredMachineTypeId() {
+        return job.getRequiredMachineTypeId();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SequencedJob{scheduleId=%d, machineId=%s, startTime=%s}",
+                id,
+                machineSequence != null ? machineSequence.getId() : "unassigned",
+                startTime != null ? startTime : "unscheduled");
+    }
+}
@@ -0,0 +1,201 @@
+package unical.demacs.rdm.utils;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.solver.Solver;
+import unical.demacs.rdm.persistence.dto.ScheduleWithMachineDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Solve asincrono identificato da un problemId: stato, miglior score corrente e risultato finale.
+ * Lo Scheduler registra qui ogni Solver che avvia per la richiesta, così lo score si aggiorna
+ * a ogni nuova soluzione migliore e la cancellazione può terminarli in anticipo.
+ */
+@Slf4j
+@Getter
+public class SolveJob {
+    /**
+     * Intervallo minimo tra due notifiche di progresso: all'inizio della ricerca locale
+     * le soluzioni migliori arrivano a centinaia al secondo.
+     */
+    private static final long PROGRESS_INTERVAL_MILLIS = 200L;
+
+    public enum Status {
+        SCHEDULED, SOLVING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private final long problemId;
+    private final String criterion;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile Status status = Status.SCHEDULED;
+    private volatile boolean cancelRequested;
+    private volatile List<ScheduleWithMachineDTO> result;
+    private volatile String error;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<Long, Progress> progress = new ConcurrentHashMap<>();
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<Long, String> winningStrategies = new ConcurrentSkipListMap<>();
+    @Getter(lombok.AccessLevel.NONE)
+    private final List<Consumer<SolveJob>> progressListeners = new CopyOnWriteArrayList<>();
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile long lastProgressMillis;
+    @Getter(lombok.AccessLevel.NONE)
+    private final List<Solver<?>> solvers = new CopyOnWriteArrayList<>();
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile Future<?> future;
+
+    public SolveJob(long problemId, String criterion) {
+        this.problemId = problemId;
+        this.criterion = criterion;
+    }
+
+    /**
+     * Miglior score corrente. Nel solve partizionato è la somma dei migliori di ogni partizione;
+     * nel solve a due passi il passo fine sostituisce quello grossolano dello stesso sottoproblema.
+     */
+    public HardSoftScore getBestScore() {
+        return progress.values().stream().map(Progress::score).reduce(HardSoftScore::add).orElse(null);
+    }
+
+    /**
+     * Numero di job assegnati nella miglior soluzione corrente, sommato sulle partizioni.
+     */
+    public int getAssignedJobCount() {
+        return progress.values().stream().mapToInt(Progress::assignedJobs).sum();
+    }
+
+    /**
+     * Configurazioni vincitrici del solve a portfolio, una per sottoproblema; vuota senza portfolio.
+     */
+    public List<String> getWinningStrategies() {
+        return List.copyOf(winningStrategies.values());
+    }
+
+    public boolean isDone() {
+        return status == Status.COMPLETED || status == Status.CANCELLED || status == Status.FAILED;
+    }
+
+    /**
+     * Registra un solver in partenza per questa richiesta. Se la cancellazione è già stata chiesta
+     * il solver termina alla prima soluzione migliore, cioè appena finita la costruzione.
+     *
+     * @param subProblemId identifica il sottoproblema risolto: solver con lo stesso id si sostituiscono,
+     *                     id diversi (partizioni) si sommano
+     */
+    public <S> void attach(Solver<S> solver, long subProblemId, ToIntFunction<S> assignedJobsCounter) {
+        attach(solver, subProblemId, assignedJobsCounter, false);
+    }
+
+    /**
+     * @param keepBest true per i solver di un portfolio che corrono sullo stesso sottoproblema:
+     *                 una nuova soluzione sostituisce quella registrata solo se ha uno score migliore
+     */
+    public <S> void attach(Solver<S> solver, long subProblemId, ToIntFunction<S> assignedJobsCounter, boolean keepBest) {
+        solvers.add(solver);
+        solver.addEventListener(event -> {
+            Progress newProgress = new Progress((HardSoftScore) event.getNewBestScore(),
+                    assignedJobsCounter.applyAsInt(event.getNewBestSolution()));
+            progress.merge(subProblemId, newProgress, (current, candidate) ->
+                    !keepBest || candidate.score().compareTo(current.score()) > 0 ? candidate : current);
+            if (cancelRequested) {
+                solver.terminateEarly();
+            }
+            publishProgress(false);
+        });
+    }
+
+    /**
+     * Il listener riceve il solve a ogni nuova soluzione migliore, al massimo ogni
+     * PROGRESS_INTERVAL_MILLIS, e sempre alla terminazione. Gira sul thread del solver, quindi
+     * deve tornare subito: l'I/O va eseguito su un altro thread.
+     */
+    public void addProgressListener(Consumer<SolveJob> listener) {
+        progressListeners.add(listener);
+    }
+
+    public void removeProgressListener(Consumer<SolveJob> listener) {
+        progressListeners.remove(listener);
+    }
+
+    /**
+     * Chiede la terminazione anticipata: un solve in coda non parte, uno in corso termina
+     * con la miglior soluzione trovata fin qui, che resta disponibile come risultato.
+     */
+    public void cancel() {
+        cancelRequested = true;
+        if (status == Status.SCHEDULED && future != null && future.cancel(false)) {
+            finish(Status.CANCELLED);
+            return;
+        }
+        solvers.forEach(Solver::terminateEarly);
+    }
+
+    void recordWinningStrategy(long subProblemId, String strategy) {
+        winningStrategies.put(subProblemId, strategy);
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * @return false se il solve era stato cancellato prima di partire
+     */
+    boolean start() {
+        if (cancelRequested) {
+            finish(Status.CANCELLED);
+            return false;
+        }
+        startedAt = LocalDateTime.now();
+        status = Status.SOLVING;
+        return true;
+    }
+
+    void complete(List<ScheduleWithMachineDTO> result) {
+        this.result = result;
+        finish(cancelRequested ? Status.CANCELLED : Status.COMPLETED);
+    }
+
+    void fail(Exception e) {
+        this.error = e.getMessage();
+        finish(Status.FAILED);
+    }
+
+    private void finish(Status status) {
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+        publishProgress(true);
+    }
+
+    private void publishProgress(boolean force) {
+        long now = System.currentTimeMillis();
+        if (!force && now - lastProgressMillis < PROGRESS_INTERVAL_MILLIS) {
+            return;
+        }
+        lastProgressMillis = now;
+        for (Consumer<SolveJob> listener : progressListeners) {
+            try {
+                listener.accept(this);
+            } catch (RuntimeException e) {
+                log.warn("Listener di progresso del solve {} fallito: {}", problemId, e.getMessage());
+                progressListeners.remove(listener);
+            }
+        }
+    }
+
+    private record Progress(HardSoftScore score, int assignedJobs) {
+    }
+}
@@ -0,0 +1,114 @@
+package unical.demacs.rdm.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import unical.demacs.rdm.config.SchedulerProperties;
+import unical.demacs.rdm.config.exception.SolveJobNotFoundException;
+import unical.demacs.rdm.config.exception.TooManyRequestsException;
+import unical.demacs.rdm.persistence.entities.Schedule;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Solve asincroni: la richiesta riceve subito un problemId e il solve gira sul pool limitato
+ * solveJobExecutor. Stato, miglior score e risultato si leggono per problemId.
+ */
+@Slf4j
+@Service
+public class SolveJobManager {
+    private final Scheduler scheduler;
+    private final ExecutorService solveJobExecutor;
+    private final SchedulerProperties schedulerProperties;
+    private final AtomicLong nextProblemId = new AtomicLong(1);
+    private final Map<Long, SolveJob> solveJobs = new ConcurrentSkipListMap<>();
+
+    public SolveJobManager(Scheduler scheduler, ExecutorService solveJobExecutor,
+                           SchedulerProperties schedulerProperties) {
+        this.scheduler = scheduler;
+        this.solveJobExecutor = solveJobExecutor;
+        this.schedulerProperties = schedulerProperties;
+    }
+
+    /**
+     * @throws TooManyRequestsException se pool e coda dei solve sono pieni
+     */
+    public SolveJob submit(String criterion, SolverOptions options) {
+        return submit(criterion, options, scheduler::scheduleByCriterion);
+    }
+
+    /**
+     * Accoda un solve che esegue la funzione indicata con le opzioni già legate al SolveJob.
+     */
+    SolveJob submit(String criterion, SolverOptions options, BiFunction<String, SolverOptions, List<Schedule>> solve) {
+        if (!SolverFactoryCache.CRITERIA.contains(criterion)) {
+            throw new IllegalArgumentException("Unknown scheduling criterion: " + criterion);
+        }
+        SolveJob solveJob = new SolveJob(nextProblemId.getAndIncrement(), criterion);
+        SolverOptions jobOptions = options.toBuilder().solveJob(solveJob).build();
+        try {
+            solveJobs.put(solveJob.getProblemId(), solveJob);
+            solveJob.setFuture(solveJobExecutor.submit(() -> run(solveJob, jobOptions, solve)));
+        } catch (RejectedExecutionException e) {
+            solveJobs.remove(solveJob.getProblemId());
+            log.warn("Solve asincrono rifiutato per il criterio {}: coda piena", criterion);
+            throw new TooManyRequestsException();
+        }
+        log.info("Solve asincrono {} accodato per il criterio {}", solveJob.getProblemId(), criterion);
+        evictFinished();
+        return solveJob;
+    }
+
+    public SolveJob get(long problemId) {
+        SolveJob solveJob = solveJobs.get(problemId);
+        if (solveJob == null) {
+            throw new SolveJobNotFoundException("Solve not found with id: " + problemId);
+        }
+        return solveJob;
+    }
+
+    public SolveJob cancel(long problemId) {
+        SolveJob solveJob = get(problemId);
+        if (!solveJob.isDone()) {
+            log.info("Terminazione anticipata del solve asincrono {}", problemId);
+            solveJob.cancel();
+        }
+        return solveJob;
+    }
+
+    private void run(SolveJob solveJob, SolverOptions options, BiFunction<String, SolverOptions, List<Schedule>> solve) {
+        if (!solveJob.start()) {
+            return;
+        }
+        try {
+            List<Schedule> result = solve.apply(solveJob.getCriterion(), options);
+            solveJob.complete(scheduler.toScheduleWithMachineDTOs(result));
+            log.info("Solve asincrono {} terminato ({}) con score {}",
+                    solveJob.getProblemId(), solveJob.getStatus(), solveJob.getBestScore());
+        } catch (Exception e) {
+            log.error("Solve asincrono {} fallito: {}", solveJob.getProblemId(), e.getMessage(), e);
+            solveJob.fail(e);
+        }
+    }
+
+    /**
+     * Rimuove i solve terminati più vecchi oltre il numero conservato.
+     */
+    private void evictFinished() {
+        int excess = solveJobs.size() - schedulerProperties.getAsync().getRetainedJobs();
+        for (SolveJob solveJob : solveJobs.values()) {
+            if (excess <= 0) {
+                return;
+            }
+            if (solveJob.isDone()) {
+                solveJobs.remove(solveJob.getProblemId());
+                excess--;
+            }
+        }
+    }
+}
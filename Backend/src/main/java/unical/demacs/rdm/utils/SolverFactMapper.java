@@ -0,0 +1,102 @@
+package unical.demacs.rdm.utils;
+
+import unical.demacs.rdm.persistence.entities.Machine;
+import unical.demacs.rdm.persistence.entities.Schedule;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Converte schedule e macchine nei fatti del solver e risale alle entità a partire dagli id
+ * della soluzione. Il solver non tocca mai le entità JPA né i loro equals/hashCode.
+ */
+public class SolverFactMapper {
+    private final Map<Long, Schedule> schedulesById;
+    private final Map<Long, Machine> machinesById;
+    private final List<SolverJob> jobs;
+    private final List<SolverMachine> machines;
+
+    public SolverFactMapper(List<Schedule> schedules, List<Machine> machines) {
+        this.schedulesById = schedules.stream()
+                .collect(Collectors.toMap(Schedule::getId, Function.identity(), (a, b) -> a, ConcurrentHashMap::new));
+        this.machinesById = machines.stream()
+                .collect(Collectors.toMap(Machine::getId, Function.identity(), (a, b) -> a, ConcurrentHashMap::new));
+        this.jobs = schedules.stream().map(SolverFactMapper::toSolverJob).collect(Collectors.toList());
+        this.machines = machines.stream().map(SolverFactMapper::toSolverMachine).collect(Collectors.toList());
+    }
+
+    public List<SolverJob> getJobs() {
+        return jobs;
+    }
+
+    public List<SolverMachine> getMachines() {
+        return machines;
+    }
+
+    /**
+     * Divide job e macchine per tipo di macchina: ogni job può andare solo su macchine del proprio tipo,
+     * quindi le partizioni sono indipendenti. Restituisce una lista vuota se qualche job non ha un tipo
+     * o non ha macchine compatibili disponibili, perché in quel caso le partizioni non sarebbero disgiunte.
+     */
+    public List<Partition> partitionByMachineType() {
+        Map<Long, List<SolverMachine>> machinesByType = machines.stream()
+                .collect(Collectors.groupingBy(SolverMachine::getMachineTypeId, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, List<SolverJob>> jobsByType = new LinkedHashMap<>();
+        for (SolverJob job : jobs) {
+            Long machineTypeId = job.getRequiredMachineTypeId();
+            if (machineTypeId == null || !machinesByType.containsKey(machineTypeId)) {
+                return List.of();
+            }
+            jobsByType.computeIfAbsent(machineTypeId, id -> new ArrayList<>()).add(job);
+        }
+        return jobsByType.entrySet().stream()
+                .map(entry -> new Partition(entry.getKey(), entry.getValue(), machinesByType.get(entry.getKey())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Registra una schedule o una macchina arrivata durante un solve in tempo reale,
+     * così la soluzione finale può risalire all'entità aggiornata.
+     */
+    public void register(Schedule schedule) {
+        schedulesById.put(schedule.getId(), schedule);
+    }
+
+    public void register(Machine machine) {
+        machinesById.put(machine.getId(), machine);
+    }
+
+    public Schedule schedule(long id) {
+        return schedulesById.get(id);
+    }
+
+    public Machine machine(long id) {
+        return machinesById.get(id);
+    }
+
+    public static SolverJob toSolverJob(Schedule schedule) {
+        return SolverJob.builder()
+                .id(schedule.getId())
+                .releaseTime(schedule.getStartTime().toEpochSecond(ZoneOffset.UTC))
+                .dueTime(schedule.getDueDate() != null
+                        ? schedule.getDueDate().toEpochSecond(ZoneOffset.UTC)
+                        : Long.MAX_VALUE)
+                .duration(schedule.getDuration())
+                .priorityFactor(3 - schedule.getJob().getPriority().ordinal())
+                .requiredMachineTypeId(schedule.getMachineType() != null ? schedule.getMachineType().getId() : null)
+                .build();
+    }
+
+    public static SolverMachine toSolverMachine(Machine machine) {
+        return new SolverMachine(machine.getId(), machine.getMachine_type_id().getId());
+    }
+
+    public record Partition(long machineTypeId, List<SolverJob> jobs, List<SolverMachine> machines) {
+    }
+}
@@ -0,0 +1,423 @@
+package unical.demacs.rdm.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+import org.optaplanner.core.api.score.stream.ConstraintStreamImplType;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicType;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import org.optaplanner.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import unical.demacs.rdm.config.SchedulerProperties;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Mantiene una SolverFactory già costruita per ogni criterio di schedulazione.
+ * La factory compila la rete di vincoli e analizza le annotazioni del dominio una volta sola:
+ * ogni solve prende soltanto un nuovo Solver dalla factory.
+ * Le factory sono indicizzate solo sulla configurazione strutturale (criterio, tipo di solver,
+ * strategia, move thread): quelle per le opzioni di default sono create all'avvio, le altre alla
+ * prima richiesta che le usa. Seed e limiti di terminazione diversi dai default cambiano a ogni
+ * richiesta, quindi le loro factory stanno in una cache LRU limitata.
+ */
+@Slf4j
+@Component
+public class SolverFactoryCache {
+    public static final List<String> CRITERIA = List.of("priority", "due-date", "duration");
+    public static final String MULTI_OBJECTIVE = "multi-objective";
+
+    private static final LocalDateTime WARM_UP_START = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final long WARM_UP_MACHINE_TYPE_ID = -1L;
+    static final int MAX_VARIANT_FACTORIES = 16;
+
+    private final SchedulerProperties schedulerProperties;
+    private final Map<FactoryKey, SolverFactory<?>> solverFactories = new ConcurrentHashMap<>();
+    private final Map<VariantKey, SolverFactory<?>> variantSolverFactories = Collections.synchronizedMap(
+            new LinkedHashMap<>(MAX_VARIANT_FACTORIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<VariantKey, SolverFactory<?>> eldest) {
+                    return size() > MAX_VARIANT_FACTORIES;
+                }
+            });
+
+    public SolverFactoryCache(SchedulerProperties schedulerProperties) {
+        this.schedulerProperties = schedulerProperties;
+        SolverOptions defaults = SolverOptions.defaults(schedulerProperties);
+        for (String criterion : CRITERIA) {
+            if (defaults.getModel() == PlanningModel.CHAINED) {
+                getSolverFactory(criterion, defaults, SolverKind.SEQUENCE, 0);
+            } else {
+                getSolverFactory(criterion, defaults, SolverKind.DEFAULT, 0);
+            }
+        }
+        log.info("Create {} SolverFactory per i criteri {} (modello {})",
+                CRITERIA.size(), CRITERIA, defaults.getModel());
+    }
+
+    public Solver<ScheduleSolution> buildSolver(String criterion) {
+        return buildSolver(criterion, SolverOptions.defaults(schedulerProperties));
+    }
+
+    public Solver<ScheduleSolution> buildSolver(String criterion, SolverOptions options) {
+        return buildSolver(criterion, options, 0);
+    }
+
+    /**
+     * Solver con i limiti di terminazione della richiesta; entityCount serve al budget proporzionale.
+     */
+    public Solver<ScheduleSolution> buildSolver(String criterion, SolverOptions options, int entityCount) {
+        return this.<ScheduleSolution>getSolverFactory(criterion, options, SolverKind.DEFAULT, entityCount)
+                .buildSolver();
+    }
+
+    /**
+     * Solver per il passo di raffinamento su grain fini: parte da una soluzione già inizializzata
+     * e dispone di un tempo breve, senza fermarsi alla prima soluzione ammissibile.
+     */
+    public Solver<ScheduleSolution> buildRefineSolver(String criterion, SolverOptions options) {
+        return this.<ScheduleSolution>getSolverFactory(criterion, options, SolverKind.REFINE, 0).buildSolver();
+    }
+
+    /**
+     * Solver demone per la pianificazione in tempo reale: quando la ricerca non migliora più
+     * resta in attesa di nuove ProblemChange invece di restituire la soluzione, e termina
+     * solo con terminateEarly.
+     */
+    public Solver<ScheduleSolution> buildRealTimeSolver(String criterion, SolverOptions options) {
+        return this.<ScheduleSolution>getSolverFactory(criterion, options, SolverKind.REAL_TIME, 0).buildSolver();
+    }
+
+    /**
+     * Solver per il modello CHAINED, dove ogni macchina è l'inizio di una catena ordinata di job.
+     */
+    public Solver<SequenceSolution> buildSequenceSolver(String criterion, SolverOptions options) {
+        return buildSequenceSolver(criterion, options, 0);
+    }
+
+    public Solver<SequenceSolution> buildSequenceSolver(String criterion, SolverOptions options, int entityCount) {
+        return this.<SequenceSolution>getSolverFactory(criterion, options, SolverKind.SEQUENCE, entityCount)
+                .buildSolver();
+    }
+
+    /**
+     * Solver multi-obiettivo che risolve una volta per tutti i criteri. Non si ferma alla prima
+     * soluzione ammissibile: le pesature migliorano anche dopo, fino agli altri limiti.
+     */
+    public Solver<MultiObjectiveSolution> buildMultiObjectiveSolver(SolverOptions options, int entityCount) {
+        return this.<MultiObjectiveSolution>getSolverFactory(MULTI_OBJECTIVE, options, SolverKind.MULTI_OBJECTIVE,
+                entityCount).buildSolver();
+    }
+
+    /**
+     * Limiti di terminazione di un solve: default, proprietà globali, proprietà del criterio
+     * e opzioni della richiesta, in quest'ordine di precedenza crescente.
+     */
+    SolverTermination resolveTermination(String criterion, SolverOptions options, int entityCount) {
+        SchedulerProperties.Termination termination = schedulerProperties.getTermination();
+        return SolverTermination.DEFAULT
+                .overriddenBy(SolverTermination.of(termination))
+                .overriddenBy(SolverTermination.of(termination.getCriteria().get(criterion)))
+                .overriddenBy(options.getTermination())
+                .forEntityCount(entityCount);
+    }
+
+    /**
+     * Factory per la configurazione strutturale della richiesta. Con seed o terminazione diversi
+     * da quelli configurati la factory viene dalla cache LRU, così le richieste con limiti sempre diversi
+     * (ad esempio il budget proporzionale al numero di job) non fanno crescere la cache principale.
+     */
+    @SuppressWarnings("unchecked")
+    private <Solution_> SolverFactory<Solution_> getSolverFactory(String criterion, SolverOptions options,
+                                                                  SolverKind kind, int entityCount) {
+        if (kind != SolverKind.MULTI_OBJECTIVE) {
+            checkCriterion(criterion);
+        }
+        FactoryKey key = new FactoryKey(criterion, kind, strategyOf(options), options.getMoveThreadCount());
+        SolverTermination termination = termination(key, options, entityCount);
+        if (Objects.equals(options.getRandomSeed(), schedulerProperties.getSolver().getRandomSeed())
+                && Objects.equals(termination, termination(key, SolverOptions.builder().build(), 0))) {
+            return (SolverFactory<Solution_>) solverFactories.computeIfAbsent(key, k -> {
+                log.debug("Creazione SolverFactory per {}", k);
+                return createSolverFactory(k, options, termination);
+            });
+        }
+        VariantKey variantKey = new VariantKey(key, options.getRandomSeed(), termination);
+        SolverFactory<?> solverFactory = variantSolverFactories.get(variantKey);
+        if (solverFactory == null) {
+            log.debug("Creazione SolverFactory per {}", variantKey);
+            solverFactory = createSolverFactory(key, options, termination);
+            variantSolverFactories.put(variantKey, solverFactory);
+        }
+        return (SolverFactory<Solution_>) solverFactory;
+    }
+
+    /**
+     * Terminazione per tipo di solver; raffinamento e tempo reale usano i propri limiti fissi.
+     */
+    private SolverTermination termination(FactoryKey key, SolverOptions options, int entityCount) {
+        return switch (key.kind()) {
+            case DEFAULT, SEQUENCE -> resolveTermination(key.criterion(), options, entityCount);
+            case MULTI_OBJECTIVE -> resolveTermination(key.criterion(), options, entityCount).toBuilder()
+                    .bestScoreLimit("")
+                    .build();
+            case REFINE, REAL_TIME -> null;
+        };
+    }
+
+    private SolverFactory<?> createSolverFactory(FactoryKey key, SolverOptions options, SolverTermination termination) {
+        Function<TerminationConfig, SolverConfig> solverConfig = terminationConfig -> switch (key.kind()) {
+            case DEFAULT -> createSolverConfig(options, terminationConfig);
+            case SEQUENCE -> createSequenceSolverConfig(options, terminationConfig);
+            case MULTI_OBJECTIVE -> createMultiObjectiveSolverConfig(options, terminationConfig);
+            case REFINE -> createSolverConfig(options,
+                    refineTerminationConfig(schedulerProperties.getGrain().getRefineSeconds()));
+            case REAL_TIME -> createSolverConfig(options,
+                    realTimeTerminationConfig(schedulerProperties.getRealTime().getUnimprovedSeconds()))
+                    .withDaemon(true);
+        };
+        return SolverFactory.create(solverConfig.apply(termination != null ? termination.toTerminationConfig() : null));
+    }
+
+    /**
+     * Numero di factory in cache, principali e LRU.
+     */
+    int factoryCount() {
+        return solverFactories.size() + variantSolverFactories.size();
+    }
+
+    private void checkCriterion(String criterion) {
+        if (!CRITERIA.contains(criterion)) {
+            throw new IllegalArgumentException("Unknown scheduling criterion: " + criterion);
+        }
+    }
+
+    /**
+     * Esegue un solve su un problema sintetico minimo per ogni criterio, così che la prima
+     * richiesta reale non paghi il costo di inizializzazione del solver e della JIT.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!schedulerProperties.isWarmUp()) {
+            log.debug("Warm-up del solver disabilitato");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        SolverOptions defaults = SolverOptions.defaults(schedulerProperties);
+        for (String criterion : CRITERIA) {
+            try {
+                if (defaults.getModel() == PlanningModel.CHAINED) {
+                    buildSequenceSolver(criterion, defaults).solve(createWarmUpSequenceProblem());
+                } else {
+                    buildSolver(criterion, defaults).solve(createWarmUpProblem());
+                }
+            } catch (Exception e) {
+                log.warn("Warm-up del solver fallito per il criterio {}: {}", criterion, e.getMessage());
+            }
+        }
+        log.info("Warm-up del solver completato in {} ms", System.currentTimeMillis() - start);
+    }
+
+    static TerminationConfig refineTerminationConfig(long refineSeconds) {
+        return new TerminationConfig()
+                .withSecondsSpentLimit(refineSeconds)
+                .withUnimprovedSecondsSpentLimit(Math.max(1L, refineSeconds / 3));
+    }
+
+    /**
+     * Nel solver demone la terminazione non chiude il solve: sospende la ricerca finché non arriva
+     * una nuova modifica, così la CPU non resta occupata quando il piano è già stabile.
+     */
+    static TerminationConfig realTimeTerminationConfig(long unimprovedSeconds) {
+        return new TerminationConfig()
+                .withUnimprovedSecondsSpentLimit(unimprovedSeconds);
+    }
+
+    static SolverConfig createSolverConfig(SolverOptions options, TerminationConfig terminationConfig) {
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(ScheduleSolution.class)
+                .withEntityClasses(JobAssignment.class)
+                .withScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                        .withConstraintProviderClass(ScheduleConstraintProvider.class)
+                        .withConstraintStreamImplType(ConstraintStreamImplType.BAVET))
+                .withTerminationConfig(terminationConfig)
+                .withPhases(
+                        new ConstructionHeuristicPhaseConfig()
+                                .withConstructionHeuristicType(ConstructionHeuristicType.FIRST_FIT_DECREASING),
+                        localSearchPhaseConfig(strategyOf(options), new LocalSearchPhaseConfig()
+                                .withAcceptorConfig(new LocalSearchAcceptorConfig()
+                                        .withLateAcceptanceSize(1000)
+                                        .withEntityTabuSize(10))
+                                .withForagerConfig(new LocalSearchForagerConfig()
+                                        .withAcceptedCountLimit(8)))
+                );
+
+        applyOptions(solverConfig, options);
+        moveStepCountLimitToLocalSearch(solverConfig);
+        return solverConfig;
+    }
+
+    /**
+     * Configurazione del solve multi-obiettivo: stesse fasi del modello a grain, con lo score a livelli.
+     * La temperatura iniziale del simulated annealing è espressa in hard/soft, quindi quella strategia
+     * usa la ricerca locale di default.
+     */
+    static SolverConfig createMultiObjectiveSolverConfig(SolverOptions options, TerminationConfig terminationConfig) {
+        SolverOptions multiObjectiveOptions = strategyOf(options) == SolverStrategy.SIMULATED_ANNEALING
+                ? options.toBuilder().strategy(SolverStrategy.DEFAULT).build()
+                : options;
+        return createSolverConfig(multiObjectiveOptions, terminationConfig)
+                .withSolutionClass(MultiObjectiveSolution.class)
+                .withScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                        .withConstraintProviderClass(MultiObjectiveConstraintProvider.class)
+                        .withConstraintStreamImplType(ConstraintStreamImplType.BAVET));
+    }
+
+    /**
+     * Configurazione del modello CHAINED: la costruzione accoda ogni job nella posizione migliore
+     * di una catena, la ricerca locale sposta e scambia job tra catene.
+     */
+    static SolverConfig createSequenceSolverConfig(SolverOptions options, TerminationConfig terminationConfig) {
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(SequenceSolution.class)
+                .withEntityClasses(Standstill.class, SequencedJob.class)
+                .withScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                        .withConstraintProviderClass(SequenceConstraintProvider.class)
+                        .withConstraintStreamImplType(ConstraintStreamImplType.BAVET))
+                .withTerminationConfig(terminationConfig)
+                .withPhases(
+                        new ConstructionHeuristicPhaseConfig(),
+                        localSearchPhaseConfig(strategyOf(options), new LocalSearchPhaseConfig()
+                                .withAcceptorConfig(new LocalSearchAcceptorConfig()
+                                        .withLateAcceptanceSize(400))
+                                .withForagerConfig(new LocalSearchForagerConfig()
+                                        .withAcceptedCountLimit(4)))
+                );
+        applyOptions(solverConfig, options);
+        moveStepCountLimitToLocalSearch(solverConfig);
+        return solverConfig;
+    }
+
+    /**
+     * Ricerca locale della strategia; DEFAULT usa la configurazione propria del modello.
+     */
+    private static LocalSearchPhaseConfig localSearchPhaseConfig(SolverStrategy strategy,
+                                                                 LocalSearchPhaseConfig modelDefault) {
+        return switch (strategy) {
+            case DEFAULT -> modelDefault;
+            case TABU_SEARCH -> new LocalSearchPhaseConfig()
+                    .withAcceptorConfig(new LocalSearchAcceptorConfig()
+                            .withEntityTabuSize(7))
+                    .withForagerConfig(new LocalSearchForagerConfig()
+                            .withAcceptedCountLimit(1000));
+            case SIMULATED_ANNEALING -> new LocalSearchPhaseConfig()
+                    .withAcceptorConfig(new LocalSearchAcceptorConfig()
+                            .withSimulatedAnnealingStartingTemperature("0hard/1000soft"))
+                    .withForagerConfig(new LocalSearchForagerConfig()
+                            .withAcceptedCountLimit(4));
+            case LATE_ACCEPTANCE -> new LocalSearchPhaseConfig()
+                    .withAcceptorConfig(new LocalSearchAcceptorConfig()
+                            .withLateAcceptanceSize(400))
+                    .withForagerConfig(new LocalSearchForagerConfig()
+                            .withAcceptedCountLimit(1));
+        };
+    }
+
+    private static SolverStrategy strategyOf(SolverOptions options) {
+        return options.getStrategy() != null ? options.getStrategy() : SolverStrategy.DEFAULT;
+    }
+
+    /**
+     * In OptaPlanner il limite di passi vale solo per fase: dalla terminazione del solver passa
+     * alla ricerca locale, così l'euristica di costruzione completa sempre la soluzione.
+     */
+    private static void moveStepCountLimitToLocalSearch(SolverConfig solverConfig) {
+        TerminationConfig terminationConfig = solverConfig.getTerminationConfig();
+        if (terminationConfig == null || terminationConfig.getStepCountLimit() == null) {
+            return;
+        }
+        Integer stepCountLimit = terminationConfig.getStepCountLimit();
+        solverConfig.setTerminationConfig(terminationConfig.copyConfig().withStepCountLimit(null));
+        solverConfig.getPhaseConfigList().stream()
+                .filter(LocalSearchPhaseConfig.class::isInstance)
+                .forEach(phase -> phase.setTerminationConfig(new TerminationConfig().withStepCountLimit(stepCountLimit)));
+    }
+
+    private static void applyOptions(SolverConfig solverConfig, SolverOptions options) {
+        if (options.isMultithreaded()) {
+            solverConfig.setMoveThreadCount(options.getMoveThreadCount());
+            // Senza seed l'ordine dei risultati dei move thread non serve: si evita la sincronizzazione
+            if (options.getRandomSeed() == null) {
+                solverConfig.setEnvironmentMode(EnvironmentMode.NON_REPRODUCIBLE);
+            }
+        }
+        if (options.getRandomSeed() != null) {
+            solverConfig.setEnvironmentMode(EnvironmentMode.REPRODUCIBLE);
+            solverConfig.setRandomSeed(options.getRandomSeed());
+        }
+    }
+
+    private ScheduleSolution createWarmUpProblem() {
+        long startTime = WARM_UP_START.toEpochSecond(ZoneOffset.UTC);
+        CountableValueRange<Long> startTimeRange = TimeGrains.range(new TimeWindow(startTime, startTime + 7200L), 60L);
+
+        List<SolverMachine> machines = createWarmUpMachines();
+        List<JobAssignment> assignments = new ArrayList<>();
+        for (SolverJob job : createWarmUpJobs()) {
+            assignments.add(new JobAssignment(job, machines, startTimeRange));
+        }
+        return new ScheduleSolution(assignments, machines, new ScheduleConstraintConfiguration());
+    }
+
+    private SequenceSolution createWarmUpSequenceProblem() {
+        return new SequenceSolution(createWarmUpJobs(), createWarmUpMachines(), new ScheduleConstraintConfiguration());
+    }
+
+    private List<SolverMachine> createWarmUpMachines() {
+        return List.of(new SolverMachine(-1L, WARM_UP_MACHINE_TYPE_ID), new SolverMachine(-2L, WARM_UP_MACHINE_TYPE_ID));
+    }
+
+    private List<SolverJob> createWarmUpJobs() {
+        long startTime = WARM_UP_START.toEpochSecond(ZoneOffset.UTC);
+        List<SolverJob> jobs = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            jobs.add(SolverJob.builder()
+                    .id(-i)
+                    .releaseTime(startTime)
+                    .dueTime(startTime + 7200L)
+                    .duration(600L * i)
+                    .priorityFactor((int) i)
+                    .requiredMachineTypeId(WARM_UP_MACHINE_TYPE_ID)
+                    .build());
+        }
+        return jobs;
+    }
+
+    private enum SolverKind {
+        DEFAULT, SEQUENCE, MULTI_OBJECTIVE, REFINE, REAL_TIME
+    }
+
+    private record FactoryKey(String criterion, SolverKind kind, SolverStrategy strategy, String moveThreadCount) {
+    }
+
+    private record VariantKey(FactoryKey key, Long randomSeed, SolverTermination termination) {
+    }
+}
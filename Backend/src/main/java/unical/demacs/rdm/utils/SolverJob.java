@@ -0,0 +1,19 @@
+package unical.demacs.rdm.utils;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Dati di una schedule usati dal solver: solo valori primitivi e immutabili, nessun riferimento
+ * alle entità JPA. I tempi sono secondi epoch (UTC).
+ */
+@Value
+@Builder
+public class SolverJob {
+    long id;
+    long releaseTime;
+    long dueTime;
+    long duration;
+    int priorityFactor;
+    Long requiredMachineTypeId;
+}
@@ -0,0 +1,17 @@
+package unical.demacs.rdm.utils;
+
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import org.optaplanner.core.api.domain.lookup.PlanningId;
+
+/**
+ * Macchina vista dal solver: id e tipo, con equals e hashCode sul solo id.
+ */
+@Value
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class SolverMachine {
+    @PlanningId
+    @EqualsAndHashCode.Include
+    Long id;
+    long machineTypeId;
+}
@@ -0,0 +1,67 @@
+package unical.demacs.rdm.utils;
+
+import lombok.Builder;
+import lombok.Value;
+import unical.demacs.rdm.config.SchedulerProperties;
+
+/**
+ * Opzioni del solver per una singola richiesta di schedulazione.
+ * I default arrivano da SchedulerProperties e possono essere sovrascritti dalle API dello scheduler.
+ */
+@Value
+@Builder(toBuilder = true)
+public class SolverOptions {
+    public static final String MOVE_THREAD_COUNT_NONE = "NONE";
+
+    PlanningModel model;
+    boolean partitioned;
+    String moveThreadCount;
+    Long randomSeed;
+    Long grainSeconds;
+    boolean twoPass;
+    boolean warmStart;
+    SeedHeuristic seedHeuristic;
+    boolean multiObjective;
+    boolean rollingHorizon;
+    SolverStrategy strategy;
+    boolean portfolio;
+
+    /**
+     * Partizioni risolte contemporaneamente, 0 senza partizioni: il portfolio di ognuna
+     * usa solo la sua quota dei solver paralleli.
+     */
+    int concurrentPartitions;
+
+    /**
+     * Limiti di terminazione della richiesta; i campi null mantengono quelli delle proprietà.
+     */
+    SolverTermination termination;
+
+    /**
+     * Solve asincrono a cui appartiene la richiesta, null per le chiamate sincrone.
+     */
+    SolveJob solveJob;
+
+    public static SolverOptions defaults(SchedulerProperties schedulerProperties) {
+        SchedulerProperties.Solver solver = schedulerProperties.getSolver();
+        SchedulerProperties.Grain grain = schedulerProperties.getGrain();
+        return SolverOptions.builder()
+                .model(solver.getModel())
+                .partitioned(solver.isPartitioned())
+                .moveThreadCount(solver.getMoveThreadCount())
+                .randomSeed(solver.getRandomSeed())
+                .grainSeconds(grain.getSeconds() > 0 ? grain.getSeconds() : null)
+                .twoPass(grain.isTwoPass())
+                .warmStart(solver.isWarmStart())
+                .seedHeuristic(solver.getSeedHeuristic())
+                .multiObjective(solver.isMultiObjective())
+                .rollingHorizon(schedulerProperties.getHorizon().isRolling())
+                .strategy(solver.getStrategy())
+                .portfolio(schedulerProperties.getPortfolio().isEnabled())
+                .build();
+    }
+
+    public boolean isMultithreaded() {
+        return moveThreadCount != null && !MOVE_THREAD_COUNT_NONE.equalsIgnoreCase(moveThreadCount);
+    }
+}
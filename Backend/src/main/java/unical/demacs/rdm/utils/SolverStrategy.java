@@ -0,0 +1,15 @@
+package unical.demacs.rdm.utils;
+
+/**
+ * Algoritmo della ricerca locale. DEFAULT è la configurazione storica di ogni modello;
+ * le altre permettono di confrontare algoritmi diversi sugli stessi dati nel solve a portfolio.
+ */
+public enum SolverStrategy {
+    /**
+     * GRAIN: late acceptance con tabu sulle entità; CHAINED: late acceptance.
+     */
+    DEFAULT,
+    TABU_SEARCH,
+    SIMULATED_ANNEALING,
+    LATE_ACCEPTANCE
+}
@@ -0,0 +1,114 @@
+package unical.demacs.rdm.utils;
+
+import lombok.Builder;
+import lombok.Value;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import unical.demacs.rdm.config.SchedulerProperties;
+
+/**
+ * Limiti di terminazione di un solve. Un campo null eredita il valore del livello precedente:
+ * default, proprietà globali, proprietà del criterio e infine parametri della richiesta.
+ */
+@Value
+@Builder(toBuilder = true)
+public class SolverTermination {
+    public static final SolverTermination DEFAULT = SolverTermination.builder()
+            .secondsSpentLimit(30L)
+            .bestScoreLimit("0hard/*soft")
+            .build();
+
+    /**
+     * Tempo massimo del solve in secondi; con secondsPerEntity è il tetto del budget.
+     */
+    Long secondsSpentLimit;
+
+    /**
+     * Secondi senza miglioramenti del best score dopo i quali il solve termina.
+     */
+    Long unimprovedSecondsSpentLimit;
+
+    /**
+     * Passi massimi della ricerca locale.
+     */
+    Integer stepCountLimit;
+
+    /**
+     * Score obiettivo raggiunto il quale il solve termina, es. 0hard/*soft per la prima
+     * soluzione ammissibile. Una stringa vuota disattiva il limite.
+     */
+    String bestScoreLimit;
+
+    /**
+     * Budget proporzionale alla dimensione: secondi per entità, limitati da secondsSpentLimit.
+     */
+    Double secondsPerEntity;
+
+    public static SolverTermination of(SchedulerProperties.Termination termination) {
+        if (termination == null) {
+            return SolverTermination.builder().build();
+        }
+        return SolverTermination.builder()
+                .secondsSpentLimit(termination.getSecondsSpentLimit())
+                .unimprovedSecondsSpentLimit(termination.getUnimprovedSecondsSpentLimit())
+                .stepCountLimit(termination.getStepCountLimit())
+                .bestScoreLimit(termination.getBestScoreLimit())
+                .secondsPerEntity(termination.getSecondsPerEntity())
+                .build();
+    }
+
+    /**
+     * Copia con i campi non null di override al posto dei propri.
+     */
+    public SolverTermination overriddenBy(SolverTermination override) {
+        if (override == null) {
+            return this;
+        }
+        return SolverTermination.builder()
+                .secondsSpentLimit(override.secondsSpentLimit != null ? override.secondsSpentLimit : secondsSpentLimit)
+                .unimprovedSecondsSpentLimit(override.unimprovedSecondsSpentLimit != null
+                        ? override.unimprovedSecondsSpentLimit
+                        : unimprovedSecondsSpentLimit)
+                .stepCountLimit(override.stepCountLimit != null ? override.stepCountLimit : stepCountLimit)
+                .bestScoreLimit(override.bestScoreLimit != null ? override.bestScoreLimit : bestScoreLimit)
+                .secondsPerEntity(override.secondsPerEntity != null ? override.secondsPerEntity : secondsPerEntity)
+                .build();
+    }
+
+    /**
+     * Risolve il budget proporzionale per un problema di entityCount entità: almeno un secondo,
+     * al più secondsSpentLimit. Il budget è arrotondato al secondo, così problemi di dimensione
+     * simile condividono la stessa SolverFactory. Senza secondsPerEntity o con entityCount
+     * sconosciuto (0) resta il solo secondsSpentLimit.
+     */
+    public SolverTermination forEntityCount(int entityCount) {
+        if (secondsPerEntity == null || secondsPerEntity <= 0 || entityCount <= 0) {
+            return toBuilder().secondsPerEntity(null).build();
+        }
+        long seconds = Math.max(1L, (long) Math.ceil(secondsPerEntity * entityCount));
+        if (secondsSpentLimit != null) {
+            seconds = Math.min(seconds, secondsSpentLimit);
+        }
+        return toBuilder().secondsSpentLimit(seconds).secondsPerEntity(null).build();
+    }
+
+    /**
+     * Terminazione del solve. Il limite di passi in OptaPlanner vale solo per fase:
+     * la configurazione del solver lo sposta sulla ricerca locale.
+     */
+    public TerminationConfig toTerminationConfig() {
+        TerminationConfig terminationConfig = new TerminationConfig();
+        if (secondsSpentLimit != null && secondsSpentLimit > 0) {
+            terminationConfig.setSecondsSpentLimit(secondsSpentLimit);
+        }
+        if (unimprovedSecondsSpentLimit != null && unimprovedSecondsSpentLimit > 0) {
+            terminationConfig.setUnimprovedSecondsSpentLimit(unimprovedSecondsSpentLimit);
+        }
+        if (bestScoreLimit != null && !bestScoreLimit.isBlank()) {
+            terminationConfig.setBestScoreLimit(bestScoreLimit);
+        }
+        if (stepCountLimit != null && stepCountLimit > 0) {
+            terminationConfig.setStepCountLimit(stepCountLimit);
+        }
+        return terminationConfig;
+    }
+}
@@ -0,0 +1,26 @@
+package unical.demacs.rdm.utils;
+
+import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.variable.InverseRelationShadowVariable;
+
+/**
+ * Elemento di una catena del modello CHAINED: una macchina (inizio catena) oppure un job.
+ */
+@PlanningEntity
+public interface Standstill {
+
+    /**
+     * Macchina a cui appartiene la catena, null se l'elemento non è ancora in una catena.
+     */
+    MachineSequence getMachineSequence();
+
+    /**
+     * Istante in cui l'elemento libera la macchina, null se non è ancora noto.
+     */
+    Long getEndTime();
+
+    @InverseRelationShadowVariable(sourceVariableName = "previousStandstill")
+    SequencedJob getNextJob();
+
+    void setNextJob(SequencedJob nextJob);
+}
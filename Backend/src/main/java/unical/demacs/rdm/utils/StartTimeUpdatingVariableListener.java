@@ -0,0 +1,62 @@
+package unical.demacs.rdm.utils;
+
+import org.optaplanner.core.api.domain.variable.VariableListener;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+
+import java.util.Objects;
+
+/**
+ * Ricalcola l'orario di inizio di un job e dei job che lo seguono sulla stessa catena.
+ * La propagazione si ferma al primo successore il cui orario non cambia.
+ */
+public class StartTimeUpdatingVariableListener implements VariableListener<SequenceSolution, SequencedJob> {
+
+    @Override
+    public void beforeEntityAdded(ScoreDirector<SequenceSolution> scoreDirector, SequencedJob job) {
+    }
+
+    @Override
+    public void afterEntityAdded(ScoreDirector<SequenceSolution> scoreDirector, SequencedJob job) {
+        updateStartTime(scoreDirector, job);
+    }
+
+    @Override
+    public void beforeVariableChanged(ScoreDirector<SequenceSolution> scoreDirector, SequencedJob job) {
+    }
+
+    @Override
+    public void afterVariableChanged(ScoreDirector<SequenceSolution> scoreDirector, SequencedJob job) {
+        updateStartTime(scoreDirector, job);
+    }
+
+    @Override
+    public void beforeEntityRemoved(ScoreDirector<SequenceSolution> scoreDirector, SequencedJob job) {
+    }
+
+    @Override
+    public void afterEntityRemoved(ScoreDirector<SequenceSolution> scoreDirector, SequencedJob job) {
+    }
+
+    private void updateStartTime(ScoreDirector<SequenceSolution> scoreDirector, SequencedJob job) {
+        Standstill previous = job.getPreviousStandstill();
+        SequencedJob current = job;
+        while (current != null) {
+            Long startTime = computeStartTime(previous, current);
+            if (Objects.equals(current.getStartTime(), startTime)) {
+                break;
+            }
+            scoreDirector.beforeVariableChanged(current, "startTime");
+            current.setStartTime(startTime);
+            scoreDirector.afterVariableChanged(current, "startTime");
+            previous = current;
+            current = current.getNextJob();
+        }
+    }
+
+    private Long computeStartTime(Standstill previous, SequencedJob job) {
+        if (previous == null || previous.getEndTime() == null) {
+            return null;
+        }
+        return Math.max(job.getReleaseTime(), previous.getEndTime());
+    }
+}
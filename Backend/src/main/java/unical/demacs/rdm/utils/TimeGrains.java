@@ -0,0 +1,120 @@
+package unical.demacs.rdm.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeFactory;
+import unical.demacs.rdm.persistence.entities.Schedule;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Calcolo della risoluzione dei grain e creazione delle griglie degli orari di inizio.
+ * La griglia fine è allineata all'inizio della finestra; quella grossolana usa un multiplo
+ * della risoluzione fine, così ogni grain grossolano coincide con un grain fine.
+ */
+@Slf4j
+public final class TimeGrains {
+
+    private TimeGrains() {
+    }
+
+    /**
+     * Risoluzione della griglia fine. Se non è indicata esplicitamente si usa il MCD delle durate
+     * dei job (mai sotto minSeconds); se la griglia supera maxCount grain la risoluzione viene
+     * aumentata a un multiplo del valore scelto.
+     */
+    public static long resolveGrainSeconds(List<Schedule> schedules, TimeWindow timeWindow,
+                                           Long requestedSeconds, long minSeconds, int maxCount) {
+        long grainSeconds;
+        if (requestedSeconds != null && requestedSeconds > 0) {
+            grainSeconds = requestedSeconds;
+        } else {
+            long gcd = schedules.stream()
+                    .map(Schedule::getDuration)
+                    .filter(Objects::nonNull)
+                    .filter(duration -> duration > 0)
+                    .reduce(0L, TimeGrains::gcd);
+            grainSeconds = Math.max(gcd, minSeconds);
+        }
+
+        long span = timeWindow.getEndTime() - timeWindow.getStartTime();
+        if (maxCount > 1 && span / grainSeconds + 1 > maxCount) {
+            long factor = ceilDiv(span, grainSeconds * (maxCount - 1));
+            log.debug("Troppi grain da {}s per la finestra di {}s, risoluzione moltiplicata per {}",
+                    grainSeconds, span, factor);
+            grainSeconds *= factor;
+        }
+        return grainSeconds;
+    }
+
+    /**
+     * Risoluzione grossolana per il primo passo: il più piccolo multiplo della risoluzione fine
+     * che produce al massimo maxCount grain.
+     */
+    public static long coarseGrainSeconds(TimeWindow timeWindow, long fineSeconds, int maxCount) {
+        long fineCount = count(timeWindow, fineSeconds);
+        long factor = Math.max(1, ceilDiv(fineCount, Math.max(1, maxCount)));
+        return fineSeconds * factor;
+    }
+
+    /**
+     * Griglia degli orari di inizio da inizio a fine finestra, passo grainSeconds.
+     * Il range è calcolato: non occupa memoria proporzionale all'orizzonte.
+     */
+    public static CountableValueRange<Long> range(TimeWindow timeWindow, long grainSeconds) {
+        long from = timeWindow.getStartTime();
+        return ValueRangeFactory.createLongValueRange(from, from + count(timeWindow, grainSeconds) * grainSeconds, grainSeconds);
+    }
+
+    public static long count(TimeWindow timeWindow, long grainSeconds) {
+        return (timeWindow.getEndTime() - timeWindow.getStartTime()) / grainSeconds + 1;
+    }
+
+    /**
+     * Griglia fine usata nel passo di raffinamento: ogni assegnazione vede solo gli orari fini
+     * in [centro - radiusSeconds, centro + radiusSeconds], allineati all'inizio della finestra.
+     */
+    public static class FineGrid {
+        private final TimeWindow timeWindow;
+        private final long grainSeconds;
+
+        public FineGrid(TimeWindow timeWindow, long grainSeconds) {
+            this.timeWindow = timeWindow;
+            this.grainSeconds = grainSeconds;
+        }
+
+        public CountableValueRange<Long> around(long centerInSeconds, long radiusSeconds) {
+            long lastIndex = count(timeWindow, grainSeconds) - 1;
+            long from = Math.max(0, indexOf(centerInSeconds - radiusSeconds));
+            long to = Math.min(lastIndex, indexOf(centerInSeconds + radiusSeconds));
+            return ValueRangeFactory.createLongValueRange(
+                    timeOf(from), timeOf(Math.max(from, to) + 1), grainSeconds);
+        }
+
+        public long at(long timeInSeconds) {
+            return timeOf(Math.max(0, indexOf(timeInSeconds)));
+        }
+
+        private long indexOf(long timeInSeconds) {
+            return Math.floorDiv(timeInSeconds - timeWindow.getStartTime(), grainSeconds);
+        }
+
+        private long timeOf(long index) {
+            return timeWindow.getStartTime() + index * grainSeconds;
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+}
@@ -0,0 +1,148 @@
+package unical.demacs.rdm.utils;
+
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+
+import java.util.*;
+
+/**
+ * Punto di partenza di un solve: macchina e orario di inizio dell'ultimo piano noto per ogni schedule
+ * o del piano di un'euristica veloce (SeedHeuristic).
+ * Le assegnazioni con un seme valido partono già inizializzate, quindi l'euristica di costruzione
+ * lavora solo sulle schedule nuove e la ricerca locale riparte dal piano precedente.
+ * Le schedule bloccate partono esattamente dal loro seme e il solver non le sposta.
+ */
+public class WarmStart {
+    public static final WarmStart NONE = new WarmStart(Map.of());
+
+    private final Map<Long, Seed> seeds;
+    private final Set<Long> pinnedIds;
+
+    public WarmStart(Map<Long, Seed> seeds) {
+        this(seeds, Set.of());
+    }
+
+    public WarmStart(Map<Long, Seed> seeds, Set<Long> pinnedIds) {
+        this.seeds = seeds;
+        this.pinnedIds = pinnedIds;
+    }
+
+    /**
+     * Inizializza le assegnazioni del modello a grain. Il seme viene usato solo se la macchina
+     * è ancora tra quelle candidate; l'orario è portato al primo grain non precedente al seme,
+     * al rilascio del job e alla fine del job seminato prima sulla stessa macchina, così che
+     * l'arrotondamento alla griglia non crei sovrapposizioni. Le due variabili si impostano
+     * insieme oppure nessuna. Un'assegnazione bloccata tiene l'orario del seme anche fuori griglia.
+     *
+     * @return numero di assegnazioni inizializzate
+     */
+    public int apply(List<JobAssignment> assignments) {
+        List<JobAssignment> candidates = new ArrayList<>();
+        for (JobAssignment assignment : assignments) {
+            if (seeds.containsKey(assignment.getScheduleId()) && assignment.getAssignedMachine() == null
+                    && !assignment.isScheduled()) {
+                candidates.add(assignment);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(this::seededStartTime)
+                .thenComparingLong(JobAssignment::getScheduleId));
+
+        Map<Long, Long> machineFreeTimes = new HashMap<>();
+        int seeded = 0;
+        for (JobAssignment assignment : candidates) {
+            Seed seed = seeds.get(assignment.getScheduleId());
+            Optional<SolverMachine> machine = assignment.getMachineRange().stream()
+                    .filter(candidate -> candidate.getId() == seed.machineId())
+                    .findFirst();
+            boolean pinned = pinnedIds.contains(assignment.getScheduleId());
+            Long startTime = pinned
+                    ? Long.valueOf(seed.startTime())
+                    : snap(assignment.getStartTimeRange(), Math.max(seededStartTime(assignment),
+                            machineFreeTimes.getOrDefault(seed.machineId(), Long.MIN_VALUE)));
+            if (machine.isEmpty() || startTime == null) {
+                continue;
+            }
+            assignment.setAssignedMachine(machine.get());
+            assignment.setStartTime(startTime);
+            assignment.setPinned(pinned);
+            machineFreeTimes.merge(seed.machineId(), startTime + assignment.getDuration(), Math::max);
+            seeded++;
+        }
+        return seeded;
+    }
+
+    /**
+     * Orario del seme, non prima del rilascio del job salvo per le assegnazioni bloccate.
+     */
+    private long seededStartTime(JobAssignment assignment) {
+        long seedStartTime = seeds.get(assignment.getScheduleId()).startTime();
+        return pinnedIds.contains(assignment.getScheduleId())
+                ? seedStartTime
+                : Math.max(seedStartTime, assignment.getReleaseTime());
+    }
+
+    /**
+     * Inizializza le catene del modello CHAINED: i job con seme su una macchina compatibile
+     * vengono concatenati nell'ordine dei vecchi orari, con i job bloccati in testa così che nessuna
+     * mossa ne cambi il predecessore. Le shadow variable sono impostate qui,
+     * perché il solver non le ricalcola sulla soluzione iniziale.
+     *
+     * @return numero di job inseriti in una catena
+     */
+    public int apply(SequenceSolution solution) {
+        Map<Long, MachineSequence> sequences = new HashMap<>();
+        solution.getMachineSequences().forEach(sequence -> sequences.put(sequence.getId(), sequence));
+
+        Map<MachineSequence, List<SequencedJob>> chains = new LinkedHashMap<>();
+        for (SequencedJob job : solution.getJobs()) {
+            Seed seed = seeds.get(job.getId());
+            MachineSequence sequence = seed != null ? sequences.get(seed.machineId()) : null;
+            if (sequence == null || job.getPreviousStandstill() != null || sequence.getNextJob() != null) {
+                continue;
+            }
+            Long requiredMachineTypeId = job.getRequiredMachineTypeId();
+            if (requiredMachineTypeId != null && requiredMachineTypeId != sequence.getMachineTypeId()) {
+                continue;
+            }
+            chains.computeIfAbsent(sequence, key -> new ArrayList<>()).add(job);
+        }
+
+        int seeded = 0;
+        for (Map.Entry<MachineSequence, List<SequencedJob>> chain : chains.entrySet()) {
+            MachineSequence sequence = chain.getKey();
+            Standstill previous = sequence;
+            chain.getValue().sort(Comparator.comparing((SequencedJob job) -> !pinnedIds.contains(job.getId()))
+                    .thenComparingLong(job -> seeds.get(job.getId()).startTime())
+                    .thenComparing(SequencedJob::getId));
+            for (SequencedJob job : chain.getValue()) {
+                job.setPreviousStandstill(previous);
+                previous.setNextJob(job);
+                job.setMachineSequence(sequence);
+                job.setStartTime(Math.max(job.getReleaseTime(), previous.getEndTime()));
+                job.setPinned(pinnedIds.contains(job.getId()));
+                previous = job;
+                seeded++;
+            }
+        }
+        return seeded;
+    }
+
+    /**
+     * Primo valore della griglia non precedente a timeInSeconds, null se cade oltre la fine.
+     */
+    private static Long snap(CountableValueRange<Long> range, long timeInSeconds) {
+        long size = range.getSize();
+        if (size == 0) {
+            return null;
+        }
+        long from = range.get(0);
+        long step = size > 1 ? range.get(1) - from : 1;
+        long index = Math.max(0, Math.floorDiv(timeInSeconds - from + step - 1, step));
+        return index < size ? range.get(index) : null;
+    }
+
+    /**
+     * Macchina e orario di inizio (secondi epoch UTC) dell'ultimo piano per una schedule.
+     */
+    public record Seed(long machineId, long startTime) {
+    }
+}
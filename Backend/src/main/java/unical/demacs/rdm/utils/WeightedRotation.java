@@ -0,0 +1,104 @@
+package unical.demacs.rdm.utils;
+
+import unical.demacs.rdm.persistence.entities.Machine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rotazione round robin pesata sulle macchine di un tipo. La sequenza di un giro completo è calcolata
+ * una volta con il weighted round robin "smooth": una macchina con peso 3 riceve tre job per giro,
+ * distribuiti nel giro invece che consecutivi. Ogni scelta poi è solo l'avanzamento di un cursore
+ * su un int[], senza allocazioni. Con tutti i pesi a 1 è il round robin classico nell'ordine della lista.
+ */
+public final class WeightedRotation {
+    private final int[] sequence;
+    private int cursor;
+
+    WeightedRotation(int[] machines, int[] weights) {
+        this.sequence = smoothSequence(machines, weights);
+    }
+
+    /**
+     * Una rotazione per tipo di macchina; gli indici sono le posizioni nella lista ricevuta.
+     * I pesi sono per id macchina, le macchine senza peso usano defaultWeight.
+     * Una macchina con peso 0 o senza tipo non riceve job.
+     */
+    public static Map<Long, WeightedRotation> byMachineType(List<Machine> machines, Map<Long, Integer> weights,
+                                                             int defaultWeight) {
+        Map<Long, List<Integer>> indicesByType = new HashMap<>();
+        for (int i = 0; i < machines.size(); i++) {
+            Machine machine = machines.get(i);
+            if (machine.getMachine_type_id() != null && weightOf(machine, weights, defaultWeight) > 0) {
+                indicesByType.computeIfAbsent(machine.getMachine_type_id().getId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<Long, WeightedRotation> rotations = new HashMap<>();
+        indicesByType.forEach((machineTypeId, indices) -> rotations.put(machineTypeId, new WeightedRotation(
+                indices.stream().mapToInt(Integer::intValue).toArray(),
+                indices.stream().mapToInt(i -> weightOf(machines.get(i), weights, defaultWeight)).toArray())));
+        return rotations;
+    }
+
+    private static int weightOf(Machine machine, Map<Long, Integer> weights, int defaultWeight) {
+        return Math.max(0, weights.getOrDefault(machine.getId(), defaultWeight));
+    }
+
+    /**
+     * Prossima macchina della rotazione.
+     */
+    public int next() {
+        int machine = sequence[cursor];
+        cursor = cursor + 1 == sequence.length ? 0 : cursor + 1;
+        return machine;
+    }
+
+    int cycleLength() {
+        return sequence.length;
+    }
+
+    /**
+     * Un giro completo: a ogni passo ogni macchina accumula il proprio peso, esce quella con il credito
+     * più alto (a parità la prima) e le si toglie il peso totale. I pesi sono ridotti del loro MCD
+     * per tenere il giro il più corto possibile.
+     */
+    private static int[] smoothSequence(int[] machines, int[] weights) {
+        int gcd = 0;
+        for (int weight : weights) {
+            gcd = gcd(gcd, weight);
+        }
+        int[] reduced = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            reduced[i] = weights[i] / gcd;
+            total += reduced[i];
+        }
+
+        int[] sequence = new int[total];
+        long[] credits = new long[weights.length];
+        for (int step = 0; step < total; step++) {
+            int best = 0;
+            for (int i = 0; i < reduced.length; i++) {
+                credits[i] += reduced[i];
+                if (credits[i] > credits[best]) {
+                    best = i;
+                }
+            }
+            credits[best] -= total;
+            sequence[step] = machines[best];
+        }
+        return sequence;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -7,7 +7,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import unical.demacs.rdm.controller.*;
 import unical.demacs.rdm.service.*;
+import unical.demacs.rdm.utils.ConstraintWeightsTest;
+import unical.demacs.rdm.utils.DispatchingEngineTest;
+import unical.demacs.rdm.utils.MachineHeapTest;
+import unical.demacs.rdm.utils.MultiObjectiveTrackerTest;
 import unical.demacs.rdm.utils.SchedulerTest;
+import unical.demacs.rdm.utils.SolveJobManagerTest;
+import unical.demacs.rdm.utils.SolverTerminationTest;
+import unical.demacs.rdm.utils.TimeGrainsTest;
+import unical.demacs.rdm.utils.WarmStartTest;
+import unical.demacs.rdm.utils.WeightedRotationTest;
 
 @Suite
 @SelectClasses({
@@ -16,6 +25,7 @@ import unical.demacs.rdm.utils.SchedulerTest;
 		MachineControllerTest.class,
 		MachineTypeControllerTest.class,
 		ScheduleControllerTest.class,
+		SchedulerControllerTest.class,
 		UserControllerTest.class,
 
 		JobServiceImplTest.class,
@@ -25,7 +35,16 @@ import unical.demacs.rdm.utils.SchedulerTest;
 		ScheduleServiceImplTest.class,
 		UserServiceImplTest.class,
 
-		SchedulerTest.class
+		ConstraintWeightsTest.class,
+		DispatchingEngineTest.class,
+		MachineHeapTest.class,
+		MultiObjectiveTrackerTest.class,
+		SchedulerTest.class,
+		SolveJobManagerTest.class,
+		SolverTerminationTest.class,
+		TimeGrainsTest.class,
+		WarmStartTest.class,
+		WeightedRotationTest.class
 })
 @SpringBootTest
 class StiJobsApplicationTests {
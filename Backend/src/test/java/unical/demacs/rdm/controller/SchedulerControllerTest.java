@@ -0,0 +1,127 @@
+package unical.demacs.rdm.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import unical.demacs.rdm.config.exception.handler.ExceptionsHandler;
+import unical.demacs.rdm.utils.ConstraintWeights;
+import unical.demacs.rdm.utils.RealTimePlanner;
+import unical.demacs.rdm.utils.ScheduleConstraintConfiguration;
+import unical.demacs.rdm.utils.Scheduler;
+import unical.demacs.rdm.utils.SolveJob;
+import unical.demacs.rdm.utils.SolveJobManager;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SchedulerControllerTest {
+
+    @Mock
+    private Scheduler scheduler;
+
+    @Mock
+    private SolveJobManager solveJobManager;
+
+    @Mock
+    private RealTimePlanner realTimePlanner;
+
+    @Mock
+    private ExecutorService solveEventExecutor;
+
+    @Captor
+    private ArgumentCaptor<Consumer<SolveJob>> progressListener;
+
+    private SchedulerController schedulerController;
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
+        converter.setObjectMapper(objectMapper);
+
+        schedulerController = new SchedulerController(scheduler, solveJobManager,
+                realTimePlanner, new ConstraintWeights(), solveEventExecutor);
+        mockMvc = MockMvcBuilders.standaloneSetup(schedulerController)
+                .setControllerAdvice(new ExceptionsHandler(objectMapper))
+                .setMessageConverters(converter)
+                .build();
+    }
+
+    @Test
+    void testUpdateConstraintWeights() throws Exception {
+        mockMvc.perform(put("/api/v1/scheduler/constraint-weights/{criterion}", "priority")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("Balance machine load", "0hard/200soft"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['Balance machine load']").value("0hard/200soft"));
+
+        verify(realTimePlanner).constraintWeightsChanged(eq("priority"), any(ScheduleConstraintConfiguration.class));
+    }
+
+    @Test
+    void testUpdateConstraintWeights_UnknownConstraint() throws Exception {
+        mockMvc.perform(put("/api/v1/scheduler/constraint-weights/{criterion}", "priority")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("Unknown constraint", "0hard/1soft"))))
+                .andExpect(status().isBadRequest());
+
+        verify(realTimePlanner, never()).constraintWeightsChanged(anyString(), any());
+    }
+
+    @Test
+    void testUpdateConstraintWeights_InvalidScore() throws Exception {
+        mockMvc.perform(put("/api/v1/scheduler/constraint-weights/{criterion}", "priority")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("Balance machine load", "heavy"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetConstraintWeights_UnknownCriterion() throws Exception {
+        mockMvc.perform(get("/api/v1/scheduler/constraint-weights/{criterion}", "unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testInternalIllegalArgumentIsNotABadRequest() {
+        when(scheduler.scheduleByFCFS()).thenThrow(new IllegalArgumentException("internal"));
+
+        assertThrows(ServletException.class, () -> mockMvc.perform(get("/api/v1/scheduler/schedule-fcfs")));
+    }
+
+    @Test
+    void testSolveEventsAreSentOffTheSolverThread() {
+        SolveJob solveJob = spy(new SolveJob(1L, "priority"));
+        when(solveJobManager.get(1L)).thenReturn(solveJob);
+
+        schedulerController.streamSolveJob(1L);
+        verify(solveJob).addProgressListener(progressListener.capture());
+        progressListener.getValue().accept(solveJob);
+        progressListener.getValue().accept(solveJob);
+
+        // Il secondo miglioramento trova l'invio precedente ancora in coda
+        verify(solveEventExecutor, times(1)).execute(any(Runnable.class));
+    }
+}
@@ -6,11 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import unical.demacs.rdm.config.exception.MachineException;
 import unical.demacs.rdm.config.exception.TooManyRequestsException;
 import unical.demacs.rdm.persistence.dto.MachineDTO;
 import unical.demacs.rdm.persistence.entities.Machine;
 import unical.demacs.rdm.persistence.entities.MachineType;
+import unical.demacs.rdm.persistence.event.ChangeType;
+import unical.demacs.rdm.persistence.event.MachineChangedEvent;
 import unical.demacs.rdm.persistence.repository.MachineRepository;
 import unical.demacs.rdm.persistence.repository.MachineTypeRepository;
 import unical.demacs.rdm.persistence.service.implementation.MachineServiceImpl;
@@ -36,6 +39,9 @@ public class MachineServiceImplTest {
     @Mock
     private RateLimiter rateLimiter;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private MachineServiceImpl machineService;
     private Machine testMachine;
     private MachineType testMachineType;
@@ -48,7 +54,7 @@ public class MachineServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        machineService = new MachineServiceImpl(rateLimiter, machineRepository, machineTypeRepository);
+        machineService = new MachineServiceImpl(rateLimiter, machineRepository, machineTypeRepository, eventPublisher);
 
         testMachineType = new MachineType();
         testMachineType.setId(TEST_TYPE_ID);
@@ -158,6 +164,17 @@ public class MachineServiceImplTest {
         verify(machineRepository, times(1)).save(any(Machine.class));
     }
 
+    @Test
+    void testUpdateMachine_ChangeIsPublished() {
+        when(machineRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(testMachine));
+        when(machineTypeRepository.findById(eq(TEST_TYPE_ID))).thenReturn(Optional.of(testMachineType));
+        when(machineRepository.save(any(Machine.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Machine updatedMachine = machineService.updateMachine(TEST_ID, testMachineDTO);
+
+        verify(eventPublisher).publishEvent(new MachineChangedEvent(updatedMachine, ChangeType.SAVED));
+    }
+
     @Test
     void testUpdateMachine_NotFound() {
         when(machineRepository.findById(eq(TEST_ID))).thenReturn(Optional.empty());
@@ -7,11 +7,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import unical.demacs.rdm.persistence.dto.ScheduleDTO;
 import unical.demacs.rdm.persistence.entities.Job;
 import unical.demacs.rdm.persistence.entities.MachineType;
 import unical.demacs.rdm.persistence.entities.Schedule;
 import unical.demacs.rdm.persistence.enums.ScheduleStatus;
+import unical.demacs.rdm.persistence.event.ChangeType;
+import unical.demacs.rdm.persistence.event.ScheduleChangedEvent;
 import unical.demacs.rdm.persistence.repository.JobRepository;
 import unical.demacs.rdm.persistence.repository.MachineTypeRepository;
 import unical.demacs.rdm.persistence.repository.ScheduleRepository;
@@ -41,6 +44,9 @@ public class ScheduleServiceImplTest {
     @Mock
     private RateLimiter rateLimiter;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ScheduleServiceImpl scheduleService;
 
@@ -162,6 +168,7 @@ public class ScheduleServiceImplTest {
 
         assertTrue(result);
         verify(scheduleRepository).delete(schedule);
+        verify(eventPublisher).publishEvent(new ScheduleChangedEvent(schedule, ChangeType.DELETED));
     }
 
     @Test
@@ -185,6 +192,7 @@ public class ScheduleServiceImplTest {
 
         assertNotNull(result);
         verify(scheduleRepository).save(any(Schedule.class));
+        verify(eventPublisher).publishEvent(new ScheduleChangedEvent(schedule, ChangeType.SAVED));
     }
 
     @Test
@@ -0,0 +1,93 @@
+package unical.demacs.rdm.utils;
+
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.solver.SolutionManager;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import unical.demacs.rdm.config.exception.InvalidConstraintWeightException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConstraintWeightsTest {
+
+    private final ConstraintWeights constraintWeights = new ConstraintWeights();
+
+    @Test
+    void testUpdateKeepsOtherWeightsAndCriteria() {
+        constraintWeights.update("priority", Map.of("Balance machine load", HardSoftScore.ofSoft(200)));
+        constraintWeights.update("priority", Map.of("Encourage assignment", HardSoftScore.ofSoft(10)));
+
+        ScheduleConstraintConfiguration priority = constraintWeights.forCriterion("priority");
+        assertEquals(HardSoftScore.ofSoft(200), priority.getBalanceMachineLoad());
+        assertEquals(HardSoftScore.ofSoft(10), priority.getEncourageAssignment());
+        assertEquals(HardSoftScore.ofSoft(2000), priority.getHighPriorityJobsFirst());
+        assertEquals(HardSoftScore.ofSoft(50), constraintWeights.forCriterion("duration").getBalanceMachineLoad());
+
+        assertEquals(HardSoftScore.ofSoft(50), constraintWeights.reset("priority").getBalanceMachineLoad());
+        assertEquals(HardSoftScore.ofSoft(50), constraintWeights.forCriterion("priority").getBalanceMachineLoad());
+    }
+
+    @Test
+    void testUnknownConstraintIsRejectedWithoutChangingWeights() {
+        assertThrows(InvalidConstraintWeightException.class, () -> constraintWeights.update("priority", Map.of(
+                "Balance machine load", HardSoftScore.ofSoft(200),
+                "Unknown constraint", HardSoftScore.ofSoft(1))));
+        assertThrows(InvalidConstraintWeightException.class, () -> constraintWeights.update("unknown", Map.of()));
+
+        assertEquals(HardSoftScore.ofSoft(50), constraintWeights.forCriterion("priority").getBalanceMachineLoad());
+    }
+
+    @Test
+    void testConfiguredWeightsDriveTheScore() {
+        SolutionManager<ScheduleSolution, HardSoftScore> solutionManager = SolutionManager.create(SolverFactory.create(
+                SolverFactoryCache.createSolverConfig(SolverOptions.builder().build(),
+                        new TerminationConfig().withSecondsSpentLimit(1L))));
+
+        // Un job da un'ora all'orario di rilascio: assegnato, un'ora di carico, 3600 s sotto le due ore, un tipo
+        assertEquals(HardSoftScore.ofSoft(2000 - 50 + 3600 + 500),
+                solutionManager.update(solution(constraintWeights.forCriterion("priority"))));
+
+        constraintWeights.update("priority", Map.of("Balance machine load", HardSoftScore.ofSoft(200)));
+        assertEquals(HardSoftScore.ofSoft(2000 - 200 + 3600 + 500),
+                solutionManager.update(solution(constraintWeights.forCriterion("priority"))));
+    }
+
+    @Test
+    void testDueDateWeightIsTunable() {
+        SolutionManager<ScheduleSolution, HardSoftScore> solutionManager = SolutionManager.create(SolverFactory.create(
+                SolverFactoryCache.createSolverConfig(SolverOptions.builder().build(),
+                        new TerminationConfig().withSecondsSpentLimit(1L))));
+
+        // Il job finisce alle 3600 con scadenza alle 1800
+        assertEquals(-100, solutionManager.update(solution(constraintWeights.forCriterion("priority"), 1_800L)).hardScore());
+        assertEquals(-500, solutionManager.update(solution(constraintWeights.forCriterion("due-date"), 1_800L)).hardScore());
+
+        constraintWeights.update("due-date", Map.of("Job due date", HardSoftScore.ofHard(700)));
+        assertEquals(-700, solutionManager.update(solution(constraintWeights.forCriterion("due-date"), 1_800L)).hardScore());
+    }
+
+    private ScheduleSolution solution(ScheduleConstraintConfiguration constraintConfiguration) {
+        return solution(constraintConfiguration, Long.MAX_VALUE);
+    }
+
+    private ScheduleSolution solution(ScheduleConstraintConfiguration constraintConfiguration, long dueTime) {
+        SolverMachine machine = new SolverMachine(1L, 1L);
+        SolverJob job = SolverJob.builder()
+                .id(1L)
+                .releaseTime(0L)
+                .dueTime(dueTime)
+                .duration(3_600L)
+                .priorityFactor(1)
+                .requiredMachineTypeId(1L)
+                .build();
+        JobAssignment assignment = new JobAssignment(job, List.of(machine),
+                TimeGrains.range(new TimeWindow(0L, 86_400L), 900L));
+        assignment.setAssignedMachine(machine);
+        assignment.setStartTime(0L);
+        return new ScheduleSolution(List.of(assignment), List.of(machine), constraintConfiguration);
+    }
+}
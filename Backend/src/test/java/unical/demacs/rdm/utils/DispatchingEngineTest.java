@@ -0,0 +1,170 @@
+package unical.demacs.rdm.utils;
+
+import org.junit.jupiter.api.Test;
+import unical.demacs.rdm.persistence.entities.Job;
+import unical.demacs.rdm.persistence.entities.Machine;
+import unical.demacs.rdm.persistence.entities.MachineType;
+import unical.demacs.rdm.persistence.entities.Schedule;
+import unical.demacs.rdm.persistence.enums.JobPriority;
+import unical.demacs.rdm.persistence.enums.ScheduleStatus;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DispatchingEngineTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    private final MachineType machineType = machineType(1L);
+
+    private MachineType machineType(long id) {
+        MachineType machineType = new MachineType();
+        machineType.setId(id);
+        return machineType;
+    }
+
+    private Machine machine(long id, MachineType machineType) {
+        Machine machine = new Machine();
+        machine.setId(id);
+        machine.setMachine_type_id(machineType);
+        return machine;
+    }
+
+    private Schedule schedule(long id, LocalDateTime release, long duration, LocalDateTime dueDate,
+                              JobPriority priority) {
+        Job job = new Job();
+        job.setId(id);
+        job.setPriority(priority);
+        Schedule schedule = new Schedule();
+        schedule.setId(id);
+        schedule.setJob(job);
+        schedule.setMachineType(machineType);
+        schedule.setStartTime(release);
+        schedule.setDuration(duration);
+        schedule.setDueDate(dueDate);
+        schedule.setStatus(ScheduleStatus.PENDING);
+        return schedule;
+    }
+
+    private List<Long> executionOrder(List<Schedule> schedules) {
+        return schedules.stream()
+                .sorted(Comparator.comparing(Schedule::getStartTime))
+                .map(Schedule::getId)
+                .toList();
+    }
+
+    @Test
+    void testEDDServesEarliestDueDateFirst() {
+        List<Schedule> schedules = List.of(
+                schedule(1L, BASE_TIME, 600L, BASE_TIME.plusDays(2), JobPriority.LOW),
+                schedule(2L, BASE_TIME, 600L, BASE_TIME.plusDays(3), JobPriority.LOW),
+                schedule(3L, BASE_TIME, 600L, BASE_TIME.plusDays(1), JobPriority.LOW));
+
+        List<Schedule> result = DispatchingEngine.dispatch(schedules, List.of(machine(1L, machineType)),
+                DispatchingRule.EDD, 2.0);
+
+        assertEquals(List.of(3L, 1L, 2L), executionOrder(result));
+        assertEquals(BASE_TIME, result.get(0).getStartTime());
+        assertTrue(result.stream().allMatch(schedule -> schedule.getStatus() == ScheduleStatus.SCHEDULED));
+    }
+
+    @Test
+    void testSPTServesShortestJobFirst() {
+        List<Schedule> schedules = List.of(
+                schedule(1L, BASE_TIME, 3600L, BASE_TIME.plusDays(1), JobPriority.LOW),
+                schedule(2L, BASE_TIME, 600L, BASE_TIME.plusDays(1), JobPriority.LOW),
+                schedule(3L, BASE_TIME, 1800L, BASE_TIME.plusDays(1), JobPriority.LOW));
+
+        List<Schedule> result = DispatchingEngine.dispatch(schedules, List.of(machine(1L, machineType)),
+                DispatchingRule.SPT, 2.0);
+
+        assertEquals(List.of(2L, 3L, 1L), executionOrder(result));
+    }
+
+    @Test
+    void testWSPTWeighsDurationByPriority() {
+        // 2000/4 = 500 contro 1000/1: il job urgente passa avanti anche se più lungo
+        List<Schedule> schedules = List.of(
+                schedule(1L, BASE_TIME, 1000L, BASE_TIME.plusDays(1), JobPriority.LOW),
+                schedule(2L, BASE_TIME, 2000L, BASE_TIME.plusDays(1), JobPriority.URGENT));
+
+        List<Schedule> result = DispatchingEngine.dispatch(schedules, List.of(machine(1L, machineType)),
+                DispatchingRule.WSPT, 2.0);
+
+        assertEquals(List.of(2L, 1L), executionOrder(result));
+    }
+
+    @Test
+    void testATCFavoursJobWithTightDueDate() {
+        // Con WSPT vincerebbe il job 1 (peso doppio), ma il job 2 ha solo un'ora di slack
+        List<Schedule> schedules = List.of(
+                schedule(1L, BASE_TIME, 3600L, BASE_TIME.plusDays(10), JobPriority.MEDIUM),
+                schedule(2L, BASE_TIME, 3600L, BASE_TIME.plusHours(2), JobPriority.LOW));
+
+        List<Schedule> atc = DispatchingEngine.dispatch(schedules, List.of(machine(1L, machineType)),
+                DispatchingRule.ATC, 2.0);
+        assertEquals(List.of(2L, 1L), executionOrder(atc));
+
+        schedules.forEach(schedule -> schedule.setStartTime(BASE_TIME));
+        List<Schedule> wspt = DispatchingEngine.dispatch(schedules, List.of(machine(1L, machineType)),
+                DispatchingRule.WSPT, 2.0);
+        assertEquals(List.of(1L, 2L), executionOrder(wspt));
+    }
+
+    @Test
+    void testJobsNeverStartBeforeRelease() {
+        // Il job 2 ha la scadenza più vicina ma arriva dopo: la macchina non lo aspetta
+        Schedule early = schedule(1L, BASE_TIME, 600L, BASE_TIME.plusDays(5), JobPriority.LOW);
+        Schedule late = schedule(2L, BASE_TIME.plusHours(1), 600L, BASE_TIME.plusHours(2), JobPriority.LOW);
+
+        for (DispatchingRule rule : DispatchingRule.values()) {
+            early.setStartTime(BASE_TIME);
+            late.setStartTime(BASE_TIME.plusHours(1));
+
+            DispatchingEngine.dispatch(List.of(late, early), List.of(machine(1L, machineType)), rule, 2.0);
+
+            assertEquals(BASE_TIME, early.getStartTime(), rule.name());
+            assertEquals(BASE_TIME.plusHours(1), late.getStartTime(), rule.name());
+        }
+    }
+
+    @Test
+    void testJobsOnlyGoToMachinesOfTheirType() {
+        MachineType otherType = machineType(2L);
+        Machine first = machine(1L, machineType);
+        Machine second = machine(2L, machineType);
+        List<Machine> machines = List.of(first, machine(3L, otherType), second);
+        Schedule orphan = schedule(4L, BASE_TIME, 600L, BASE_TIME.plusDays(1), JobPriority.HIGH);
+        orphan.setMachineType(machineType(3L));
+        List<Schedule> schedules = List.of(
+                schedule(1L, BASE_TIME, 3600L, BASE_TIME.plusDays(1), JobPriority.LOW),
+                schedule(2L, BASE_TIME, 3600L, BASE_TIME.plusDays(1), JobPriority.LOW),
+                schedule(3L, BASE_TIME, 3600L, BASE_TIME.plusDays(1), JobPriority.LOW),
+                orphan);
+
+        List<Schedule> result = DispatchingEngine.dispatch(schedules, machines, DispatchingRule.EDD, 2.0);
+
+        assertEquals(3, result.size());
+        assertFalse(result.contains(orphan));
+        assertNull(orphan.getMachine());
+        assertEquals(ScheduleStatus.PENDING, orphan.getStatus());
+        assertTrue(result.stream().allMatch(schedule -> schedule.getMachine() == first
+                || schedule.getMachine() == second));
+        // Due macchine in parallelo: i primi due job partono insieme, il terzo quando se ne libera una
+        assertEquals(first, result.get(0).getMachine());
+        assertEquals(second, result.get(1).getMachine());
+        assertEquals(BASE_TIME, result.get(1).getStartTime());
+        assertEquals(BASE_TIME.plusHours(1), result.get(2).getStartTime());
+        assertEquals(first, result.get(2).getMachine());
+    }
+
+    @Test
+    void testWeightFollowsJobPriority() {
+        assertEquals(1, DispatchingEngine.weightOf(schedule(1L, BASE_TIME, 1L, null, JobPriority.LOW)));
+        assertEquals(4, DispatchingEngine.weightOf(schedule(2L, BASE_TIME, 1L, null, JobPriority.URGENT)));
+        assertEquals(1, DispatchingEngine.weightOf(schedule(3L, BASE_TIME, 1L, null, null)));
+    }
+}
@@ -0,0 +1,87 @@
+package unical.demacs.rdm.utils;
+
+import org.junit.jupiter.api.Test;
+import unical.demacs.rdm.persistence.entities.Machine;
+import unical.demacs.rdm.persistence.entities.MachineType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MachineHeapTest {
+
+    private Machine machine(long id, MachineType machineType) {
+        Machine machine = new Machine();
+        machine.setId(id);
+        machine.setMachine_type_id(machineType);
+        return machine;
+    }
+
+    private MachineType machineType(long id) {
+        MachineType machineType = new MachineType();
+        machineType.setId(id);
+        return machineType;
+    }
+
+    @Test
+    void testTopIsEarliestFreeMachine() {
+        MachineHeap heap = new MachineHeap(4);
+        heap.add(0, 300L);
+        heap.add(1, 100L);
+        heap.add(2, 200L);
+
+        assertEquals(1, heap.peekMachine());
+        assertEquals(100L, heap.peekFreeTime());
+
+        heap.updateTop(400L);
+        assertEquals(2, heap.peekMachine());
+        heap.updateTop(500L);
+        assertEquals(0, heap.peekMachine());
+        assertEquals(300L, heap.peekFreeTime());
+    }
+
+    @Test
+    void testTiesGoToLowerIndex() {
+        MachineHeap heap = new MachineHeap(3);
+        heap.add(2, 0L);
+        heap.add(0, 0L);
+        heap.add(1, 0L);
+
+        assertEquals(0, heap.peekMachine());
+        heap.updateTop(10L);
+        assertEquals(1, heap.peekMachine());
+        heap.updateTop(10L);
+        assertEquals(2, heap.peekMachine());
+        heap.updateTop(10L);
+        assertEquals(0, heap.peekMachine());
+    }
+
+    @Test
+    void testHeapsAreSplitByMachineType() {
+        MachineType first = machineType(1L);
+        MachineType second = machineType(2L);
+        List<Machine> machines = List.of(machine(10L, first), machine(20L, second), machine(30L, first),
+                machine(40L, null));
+
+        Map<Long, MachineHeap> heaps = MachineHeap.byMachineType(machines);
+
+        assertEquals(2, heaps.size());
+        assertEquals(2, heaps.get(1L).size());
+        assertEquals(1, heaps.get(2L).size());
+        assertEquals(0, heaps.get(1L).peekMachine());
+        heaps.get(1L).updateTop(60L);
+        assertEquals(2, heaps.get(1L).peekMachine());
+        assertEquals(1, heaps.get(2L).peekMachine());
+    }
+
+    @Test
+    void testEmptyHeapRejectsPeek() {
+        MachineHeap heap = new MachineHeap(1);
+
+        assertTrue(heap.isEmpty());
+        assertThrows(IllegalStateException.class, heap::peekMachine);
+        heap.add(0, 0L);
+        assertThrows(IllegalStateException.class, () -> heap.add(1, 0L));
+    }
+}
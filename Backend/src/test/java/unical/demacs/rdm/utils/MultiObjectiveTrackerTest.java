@@ -0,0 +1,72 @@
+package unical.demacs.rdm.utils;
+
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.bendablelong.BendableLongScore;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiObjectiveTrackerTest {
+
+    private final MultiObjectiveConstraintConfiguration configuration = MultiObjectiveConstraintConfiguration.of(
+            SolverFactoryCache.CRITERIA.stream().map(ScheduleConstraintConfiguration::forCriterion).toList());
+
+    @Test
+    void testCombinedLevelSumsTheWeightsOfEveryCriterion() {
+        long highPriority = SolverFactoryCache.CRITERIA.stream()
+                .map(ScheduleConstraintConfiguration::forCriterion)
+                .mapToLong(c -> c.getHighPriorityJobsFirst().softScore())
+                .sum();
+
+        BendableLongScore weight = configuration.getHighPriorityJobsFirst();
+        assertEquals(highPriority, weight.softScore(MultiObjectiveConstraintConfiguration.COMBINED_LEVEL));
+        assertEquals(1L, weight.softScore(MultiObjectiveConstraintConfiguration.HIGH_PRIORITY_JOBS_FIRST_LEVEL));
+        assertEquals(0L, weight.softScore(MultiObjectiveConstraintConfiguration.SHORT_DURATION_JOBS_FIRST_LEVEL));
+        assertEquals(SolverFactoryCache.CRITERIA.size(), configuration.weightingCount());
+    }
+
+    @Test
+    void testSoftScoreOfEachWeightingMatchesItsCriterion() {
+        BendableLongScore score = score(0L, 10L, -2L, -3L, 4L, 1L);
+
+        for (int weighting = 0; weighting < SolverFactoryCache.CRITERIA.size(); weighting++) {
+            ScheduleConstraintConfiguration criterion =
+                    ScheduleConstraintConfiguration.forCriterion(SolverFactoryCache.CRITERIA.get(weighting));
+            long expected = 10L * criterion.getEncourageAssignment().softScore()
+                    - 2L * criterion.getBalanceMachineLoad().softScore()
+                    - 3L * criterion.getHighPriorityJobsFirst().softScore()
+                    + 4L * criterion.getShortDurationJobsFirst().softScore()
+                    + criterion.getDistributeJobsAcrossMachines().softScore();
+            assertEquals(expected, configuration.softScore(score, weighting));
+        }
+    }
+
+    @Test
+    void testTrackerPicksTheBestOfferedSolutionForEveryWeighting() {
+        MultiObjectiveTracker tracker = new MultiObjectiveTracker(configuration);
+        int priority = SolverFactoryCache.CRITERIA.indexOf("priority");
+        int duration = SolverFactoryCache.CRITERIA.indexOf("duration");
+        MultiObjectiveSolution lowDelay = solution(score(0L, 0L, 0L, -1L, 0L, 0L));
+        MultiObjectiveSolution shortFirst = solution(score(0L, 0L, 0L, -1_000L, 1_000L, 0L));
+        MultiObjectiveSolution infeasible = solution(BendableLongScore.of(new long[]{-1L},
+                new long[]{0L, 0L, 0L, 0L, 10_000_000L, 0L}));
+
+        tracker.offer(lowDelay);
+        tracker.offer(shortFirst);
+        tracker.offer(infeasible);
+
+        assertSame(lowDelay, tracker.best(priority));
+        assertSame(shortFirst, tracker.best(duration));
+    }
+
+    private static BendableLongScore score(long... softScores) {
+        return BendableLongScore.of(new long[MultiObjectiveConstraintConfiguration.HARD_LEVELS], softScores);
+    }
+
+    private MultiObjectiveSolution solution(BendableLongScore score) {
+        MultiObjectiveSolution solution = new MultiObjectiveSolution(List.of(), List.of(), configuration);
+        solution.setScore(score);
+        return solution;
+    }
+}
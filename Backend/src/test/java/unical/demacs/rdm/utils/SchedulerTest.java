@@ -2,6 +2,7 @@ package unical.demacs.rdm.utils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,7 +10,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 import unical.demacs.rdm.config.ModelMapperExtended;
+import unical.demacs.rdm.config.SchedulerExecutorConfig;
+import unical.demacs.rdm.config.SchedulerProperties;
 import unical.demacs.rdm.persistence.entities.*;
 import unical.demacs.rdm.persistence.enums.JobPriority;
 import unical.demacs.rdm.persistence.enums.MachineStatus;
@@ -17,8 +21,15 @@ import unical.demacs.rdm.persistence.enums.ScheduleStatus;
 import unical.demacs.rdm.persistence.repository.MachineRepository;
 import unical.demacs.rdm.persistence.repository.ScheduleRepository;
 
+import java.io.File;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +46,11 @@ public class SchedulerTest {
     private MachineRepository machineRepository;
 
     private Scheduler scheduler;
+    private SchedulerProperties schedulerProperties;
+    private ExecutorService schedulerExecutor;
+    private ExecutorService partitionExecutor;
+    private ExecutorService portfolioExecutor;
+    private ConstraintWeights constraintWeights;
     private Map<Long, MachineType> machineTypes;
 
     @BeforeEach
@@ -64,13 +80,30 @@ public class SchedulerTest {
         when(scheduleRepository.findAll()).thenReturn(testSchedules);
         when(machineRepository.findAll()).thenReturn(testMachines);
 
+        schedulerProperties = new SchedulerProperties();
+        schedulerExecutor = Executors.newFixedThreadPool(schedulerProperties.getParallelism());
+        partitionExecutor = Executors.newFixedThreadPool(schedulerProperties.getPartitionParallelism());
+        portfolioExecutor = new SchedulerExecutorConfig().portfolioExecutor(schedulerProperties);
+
+        constraintWeights = new ConstraintWeights();
         scheduler = new Scheduler(scheduleRepository, machineRepository,
-                new ModelMapperExtended(), objectMapper);
+                new ModelMapperExtended(), objectMapper, schedulerProperties, schedulerExecutor, partitionExecutor,
+                portfolioExecutor, new SolverFactoryCache(schedulerProperties), constraintWeights);
+    }
+
+    @AfterEach
+    void tearDown() {
+        schedulerExecutor.shutdownNow();
+        partitionExecutor.shutdownNow();
+        portfolioExecutor.shutdownNow();
     }
 
     private List<Schedule> createComplexTestSchedules() {
+        return createComplexTestSchedules(LocalDateTime.now());
+    }
+
+    private List<Schedule> createComplexTestSchedules(LocalDateTime baseTime) {
         List<Schedule> schedules = new ArrayList<>();
-        LocalDateTime baseTime = LocalDateTime.now();
 
         for (int i = 1; i <= 9; i++) {
             Job job = new Job();
@@ -144,6 +177,8 @@ public class SchedulerTest {
 
     @Test
     void testScheduleByEveryType() {
+        schedulerProperties.setParallel(false);
+
         scheduler.scheduleByEveryType();
 
         verify(scheduleRepository, times(5)).findAll();
@@ -153,6 +188,30 @@ public class SchedulerTest {
         verifyValidSchedule(finalSchedule);
     }
 
+    @Test
+    void testScheduleByEveryTypeInParallel() {
+        List<Schedule> original = scheduleRepository.findAll();
+
+        Map<String, List<Schedule>> results = scheduler.scheduleByEveryType();
+
+        verify(scheduleRepository, times(2)).findAll();
+        verify(machineRepository, times(1)).findAll();
+
+        assertEquals(List.of("priority", "due-date", "duration", "fcfs", "rr"), new ArrayList<>(results.keySet()));
+        results.forEach((type, result) -> {
+            assertEquals(original.size(), result.size(), "Every schedule should be planned by " + type);
+            verifyValidSchedule(result);
+        });
+
+        // Ogni run lavora su una copia: le istanze caricate non vengono modificate
+        assertTrue(original.stream().allMatch(s -> s.getMachine() == null),
+                "Parallel runs should not mutate the loaded schedules");
+        Set<Schedule> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        results.values().forEach(distinct::addAll);
+        assertEquals(original.size() * results.size(), distinct.size(),
+                "Each run should work on its own detached copy");
+    }
+
     @Test
     void testScheduleWithNoJobs() {
         when(scheduleRepository.findAll()).thenReturn(Collections.emptyList());
@@ -207,6 +266,34 @@ public class SchedulerTest {
         verifyDueDatesRespected(scheduledJobs);
     }
 
+    @Test
+    void testFCFSOnlyUsesCompatibleMachines() {
+        LocalDateTime baseTime = LocalDateTime.now().withNano(0);
+        List<Schedule> schedules = createComplexTestSchedules(baseTime);
+        MachineType withoutMachines = new MachineType();
+        withoutMachines.setId(4L);
+        Schedule orphan = new Schedule();
+        orphan.setId(10L);
+        orphan.setMachineType(withoutMachines);
+        orphan.setStartTime(baseTime);
+        orphan.setDuration(600L);
+        orphan.setStatus(ScheduleStatus.PENDING);
+        schedules.add(orphan);
+        when(scheduleRepository.findAll()).thenReturn(schedules);
+
+        List<Schedule> scheduledJobs = scheduler.scheduleByFCFS();
+
+        assertEquals(9, scheduledJobs.size());
+        assertFalse(scheduledJobs.contains(orphan));
+        assertNull(orphan.getMachine());
+        assertEquals(ScheduleStatus.PENDING, orphan.getStatus());
+        verifyMachineTypeCompatibility(scheduledJobs);
+        verifyNoTimeConflicts(scheduledJobs);
+        scheduledJobs.forEach(schedule -> assertFalse(
+                schedule.getStartTime().isBefore(baseTime.plusHours(schedule.getId())),
+                "A job never starts before its release time"));
+    }
+
     @Test
     void testScheduleByRR() {
         // Esegui lo scheduling RR
@@ -239,6 +326,485 @@ public class SchedulerTest {
         verifyDueDatesRespected(scheduledJobs);
     }
 
+    @Test
+    void testRRFollowsMachineWeightsWithinEachType() {
+        // Macchine 1 e 4 sono di tipo 1: con peso 2 la macchina 1 riceve due job su tre
+        schedulerProperties.getRoundRobin().setWeights(Map.of(1L, 2));
+        List<Schedule> schedules = new ArrayList<>(createComplexTestSchedules(LocalDateTime.now().withNano(0)));
+        schedules.addAll(createComplexTestSchedules(LocalDateTime.now().withNano(0).plusDays(5)).stream()
+                .peek(schedule -> schedule.setId(schedule.getId() + 9))
+                .toList());
+        when(scheduleRepository.findAll()).thenReturn(schedules);
+
+        List<Schedule> scheduledJobs = scheduler.scheduleByRR();
+
+        assertEquals(18, scheduledJobs.size());
+        verifyMachineTypeCompatibility(scheduledJobs);
+        verifyNoTimeConflicts(scheduledJobs);
+        Map<Long, Long> jobsPerMachine = scheduledJobs.stream()
+                .collect(Collectors.groupingBy(schedule -> schedule.getMachine().getId(), Collectors.counting()));
+        assertEquals(4L, jobsPerMachine.get(1L));
+        assertEquals(2L, jobsPerMachine.get(4L));
+        assertEquals(3L, jobsPerMachine.get(2L));
+        assertEquals(3L, jobsPerMachine.get(5L));
+    }
+
+    @Test
+    void testScheduleByDispatchingRule() {
+        LocalDateTime baseTime = LocalDateTime.now().withNano(0);
+        when(scheduleRepository.findAll()).thenReturn(createComplexTestSchedules(baseTime));
+
+        for (DispatchingRule rule : DispatchingRule.values()) {
+            List<Schedule> scheduledJobs = scheduler.scheduleByDispatchingRule(rule);
+
+            assertEquals(9, scheduledJobs.size());
+            verifyMachineAssignments(scheduledJobs);
+            verifyMachineTypeCompatibility(scheduledJobs);
+            verifyNoTimeConflicts(scheduledJobs);
+            assertTrue(new File("./data/job-scheduled-by-" + rule.criterion() + ".json").exists());
+        }
+    }
+
+    @Test
+    void testScheduleSeededByHeuristic() {
+        LocalDateTime baseTime = LocalDateTime.now().withNano(0);
+        when(scheduleRepository.findAll()).thenReturn(createComplexTestSchedules(baseTime));
+
+        for (SeedHeuristic seedHeuristic : List.of(SeedHeuristic.FCFS, SeedHeuristic.ATC)) {
+            SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                    .seedHeuristic(seedHeuristic)
+                    .build();
+
+            List<Schedule> scheduledJobs = scheduler.scheduleByDueDate(options);
+
+            assertEquals(9, scheduledJobs.size());
+            verifyValidSchedule(scheduledJobs);
+        }
+    }
+
+    @Test
+    void testUnimprovedTimeLimitEndsSolveBeforeTimeLimit() {
+        // Senza score obiettivo il solve cercherebbe per tutti i 30 secondi
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .termination(SolverTermination.builder()
+                        .bestScoreLimit("")
+                        .unimprovedSecondsSpentLimit(1L)
+                        .build())
+                .build();
+
+        long start = System.currentTimeMillis();
+        List<Schedule> scheduledJobs = scheduler.scheduleByPriority(options);
+
+        assertTrue(System.currentTimeMillis() - start < 15_000, "Solve should stop once it stops improving");
+        verifyValidSchedule(scheduledJobs);
+    }
+
+    @Test
+    void testScheduleWithMoveThreadsIsReproducibleWithSeed() {
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .moveThreadCount("2")
+                .randomSeed(42L)
+                .build();
+        LocalDateTime baseTime = LocalDateTime.now().withNano(0);
+
+        when(scheduleRepository.findAll()).thenReturn(createComplexTestSchedules(baseTime));
+        List<Schedule> firstRun = scheduler.scheduleByPriority(options);
+        verifyValidSchedule(firstRun);
+
+        when(scheduleRepository.findAll()).thenReturn(createComplexTestSchedules(baseTime));
+        List<Schedule> secondRun = scheduler.scheduleByPriority(options);
+
+        assertEquals(describe(firstRun), describe(secondRun),
+                "The same seed should produce the same schedule with move threads");
+    }
+
+    private List<String> describe(List<Schedule> schedules) {
+        return schedules.stream()
+                .sorted(Comparator.comparing(Schedule::getId))
+                .map(s -> s.getId() + "@" + s.getMachine().getId() + "@" + s.getStartTime())
+                .toList();
+    }
+
+    @Test
+    void testScheduleByPriorityCoarseToFine() {
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .grainSeconds(600L)
+                .twoPass(true)
+                .build();
+        schedulerProperties.getGrain().setCoarseMaxCount(20);
+        schedulerProperties.getGrain().setRefineSeconds(2);
+
+        LocalDateTime baseTime = LocalDateTime.now().withNano(0);
+        when(scheduleRepository.findAll()).thenReturn(createComplexTestSchedules(baseTime));
+        LocalDateTime windowStart = baseTime.plusHours(1);
+
+        List<Schedule> scheduledJobs = scheduler.scheduleByPriority(options);
+
+        assertEquals(9, scheduledJobs.size());
+        verifyValidSchedule(scheduledJobs);
+        scheduledJobs.forEach(schedule -> assertEquals(0,
+                java.time.Duration.between(windowStart, schedule.getStartTime()).getSeconds() % 600,
+                "Refined start times should lie on the fine grid"));
+    }
+
+    @Test
+    void testScheduleByPriorityWithChainedModel() {
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .model(PlanningModel.CHAINED)
+                .build();
+        List<Schedule> schedules = createComplexTestSchedules(LocalDateTime.now().withNano(0));
+        when(scheduleRepository.findAll()).thenReturn(schedules);
+        Map<Long, LocalDateTime> releaseTimes = schedules.stream()
+                .collect(Collectors.toMap(Schedule::getId, Schedule::getStartTime));
+
+        List<Schedule> scheduledJobs = scheduler.scheduleByPriority(options);
+
+        assertEquals(9, scheduledJobs.size());
+        verifyValidSchedule(scheduledJobs);
+        scheduledJobs.forEach(schedule -> assertFalse(schedule.getStartTime().isBefore(releaseTimes.get(schedule.getId())),
+                "A job should never start before it is released"));
+    }
+
+    @Test
+    void testScheduleByPriorityWarmStartPlansOnlyNewSchedules() {
+        assertWarmStartedRunIsValid(PlanningModel.GRAIN);
+    }
+
+    @Test
+    void testScheduleByPriorityWarmStartWithChainedModel() {
+        assertWarmStartedRunIsValid(PlanningModel.CHAINED);
+    }
+
+    private void assertWarmStartedRunIsValid(PlanningModel model) {
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .model(model)
+                .warmStart(true)
+                .build();
+        LocalDateTime baseTime = LocalDateTime.now().withNano(0);
+        when(scheduleRepository.findAll()).thenReturn(createComplexTestSchedules(baseTime));
+        verifyValidSchedule(scheduler.scheduleByPriority(options));
+
+        // Il secondo solve parte dal file appena scritto; la schedule 10 è l'unica da costruire
+        List<Schedule> schedules = createComplexTestSchedules(baseTime);
+        Schedule added = createComplexTestSchedules(baseTime).get(0);
+        added.setId(10L);
+        schedules.add(added);
+        when(scheduleRepository.findAll()).thenReturn(schedules);
+        Map<Long, LocalDateTime> releaseTimes = schedules.stream()
+                .collect(Collectors.toMap(Schedule::getId, Schedule::getStartTime));
+
+        List<Schedule> scheduledJobs = scheduler.scheduleByPriority(options);
+
+        assertEquals(10, scheduledJobs.size());
+        verifyValidSchedule(scheduledJobs);
+        scheduledJobs.forEach(schedule -> assertFalse(schedule.getStartTime().isBefore(releaseTimes.get(schedule.getId())),
+                "A warm-started job should never start before it is released"));
+    }
+
+    @Test
+    void testRollingHorizonPinsRunningAndFrozenSchedules() {
+        assertRollingHorizonIsRespected(PlanningModel.GRAIN);
+    }
+
+    @Test
+    void testRollingHorizonWithChainedModel() {
+        assertRollingHorizonIsRespected(PlanningModel.CHAINED);
+    }
+
+    @Test
+    void testRollingHorizonKeepsRunningScheduleOnBusyMachine() {
+        machineRepository.findAll().get(0).setStatus(MachineStatus.BUSY);
+        assertRollingHorizonIsRespected(PlanningModel.GRAIN);
+    }
+
+    @Test
+    void testRollingHorizonKeepsRunningScheduleOnBusyMachineWithChainedModel() {
+        machineRepository.findAll().get(0).setStatus(MachineStatus.BUSY);
+        assertRollingHorizonIsRespected(PlanningModel.CHAINED);
+    }
+
+    private void assertRollingHorizonIsRespected(PlanningModel model) {
+        schedulerProperties.getHorizon().setPlanningHours(5);
+        schedulerProperties.getHorizon().setFrozenMinutes(180);
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .model(model)
+                .rollingHorizon(true)
+                .build();
+        LocalDateTime baseTime = LocalDateTime.now().withNano(0);
+        List<Schedule> schedules = createComplexTestSchedules(baseTime);
+        Machine firstMachine = machineRepository.findAll().get(0);
+        Machine secondMachine = machineRepository.findAll().get(1);
+
+        Schedule running = schedules.get(0);
+        running.setStartTime(baseTime.minusMinutes(10));
+        running.setMachine(firstMachine);
+        running.setStatus(ScheduleStatus.IN_PROGRESS);
+        Schedule frozen = schedules.get(1);
+        frozen.setMachine(secondMachine);
+        frozen.setStatus(ScheduleStatus.SCHEDULED);
+        LocalDateTime frozenStart = frozen.getStartTime();
+        when(scheduleRepository.findAll()).thenReturn(schedules);
+
+        List<Schedule> scheduledJobs = scheduler.scheduleByPriority(options);
+
+        Set<Long> plannedIds = scheduledJobs.stream().map(Schedule::getId).collect(Collectors.toSet());
+        assertTrue(plannedIds.containsAll(Set.of(1L, 2L, 3L, 4L)));
+        assertTrue(Collections.disjoint(plannedIds, Set.of(6L, 7L, 8L, 9L)),
+                "Schedules released beyond the horizon should wait for a later solve");
+        verifyValidSchedule(scheduledJobs);
+        assertSame(firstMachine, running.getMachine());
+        assertEquals(baseTime.minusMinutes(10), running.getStartTime());
+        assertSame(secondMachine, frozen.getMachine());
+        assertEquals(frozenStart, frozen.getStartTime());
+    }
+
+    @Test
+    void testPortfolioKeepsBestSolutionAndRecordsWinner() {
+        assertPortfolioRecordsWinners(PlanningModel.GRAIN, false, 1);
+    }
+
+    @Test
+    void testPortfolioPartitionedWithChainedModel() {
+        assertPortfolioRecordsWinners(PlanningModel.CHAINED, true, 3);
+    }
+
+    @Test
+    void testPortfolioExecutorSharesCoresBetweenPartitions() {
+        schedulerProperties.setPartitionParallelism(3);
+        schedulerProperties.getPortfolio().setParallelism(8);
+
+        ExecutorService executor = new SchedulerExecutorConfig().portfolioExecutor(schedulerProperties);
+        try {
+            assertEquals(8, ((ThreadPoolExecutor) executor).getMaximumPoolSize(),
+                    "Portfolio solvers should not outnumber the configured parallelism");
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(8, Scheduler.portfolioWidth(8, 0));
+        assertEquals(2, Scheduler.portfolioWidth(8, 3));
+        assertEquals(1, Scheduler.portfolioWidth(2, 3));
+    }
+
+    private void assertPortfolioRecordsWinners(PlanningModel model, boolean partitioned, int subProblems) {
+        schedulerProperties.getPortfolio().setStrategies(List.of(SolverStrategy.DEFAULT,
+                SolverStrategy.TABU_SEARCH, SolverStrategy.SIMULATED_ANNEALING, SolverStrategy.LATE_ACCEPTANCE));
+        SolveJob solveJob = new SolveJob(1L, "priority");
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .model(model)
+                .partitioned(partitioned)
+                .portfolio(true)
+                .solveJob(solveJob)
+                .build();
+        when(scheduleRepository.findAll()).thenReturn(createComplexTestSchedules(LocalDateTime.now().withNano(0)));
+
+        List<Schedule> scheduledJobs = scheduler.scheduleByCriterion("priority", options);
+
+        assertEquals(9, scheduledJobs.size());
+        verifyValidSchedule(scheduledJobs);
+        assertTrue(solveJob.getBestScore().isFeasible());
+        assertEquals(9, solveJob.getAssignedJobCount());
+        assertEquals(subProblems, solveJob.getWinningStrategies().size());
+        solveJob.getWinningStrategies().forEach(winner -> assertTrue(
+                Arrays.stream(SolverStrategy.values()).anyMatch(strategy -> winner.startsWith(strategy.name())),
+                "The winner should name its strategy: " + winner));
+    }
+
+    @Test
+    void testScheduleByPriorityPartitionedByMachineType() {
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .partitioned(true)
+                .build();
+        when(scheduleRepository.findAll()).thenReturn(createComplexTestSchedules(LocalDateTime.now().withNano(0)));
+
+        List<Schedule> scheduledJobs = scheduler.scheduleByPriority(options);
+
+        assertEquals(9, scheduledJobs.size());
+        verifyValidSchedule(scheduledJobs);
+    }
+
+    @Test
+    void testScheduleByCriterionReportsBestScoreToSolveJob() {
+        SolveJob solveJob = new SolveJob(1L, "due-date");
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .partitioned(true)
+                .solveJob(solveJob)
+                .build();
+        when(scheduleRepository.findAll()).thenReturn(createComplexTestSchedules(LocalDateTime.now().withNano(0)));
+
+        List<Schedule> scheduledJobs = scheduler.scheduleByCriterion("due-date", options);
+
+        assertEquals(9, scheduledJobs.size());
+        assertNotNull(solveJob.getBestScore());
+        assertTrue(solveJob.getBestScore().isFeasible());
+        assertEquals(9, solveJob.getAssignedJobCount());
+    }
+
+    @Test
+    void testScheduleContinuouslyAppliesScheduleAndMachineChanges() throws Exception {
+        schedulerProperties.getRealTime().setUnimprovedSeconds(1);
+        LocalDateTime baseTime = LocalDateTime.now().withNano(0);
+        when(scheduleRepository.findAll()).thenReturn(createComplexTestSchedules(baseTime));
+        SolveJob solveJob = new SolveJob(1L, "priority");
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .solveJob(solveJob)
+                .build();
+        CompletableFuture<RealTimeSession> session = new CompletableFuture<>();
+
+        Future<List<Schedule>> run = schedulerExecutor.submit(() ->
+                scheduler.scheduleContinuously("priority", options, session::complete));
+        awaitAssignedJobs(solveJob, 9);
+
+        Schedule added = createComplexTestSchedules(baseTime).get(0);
+        added.setId(10L);
+        session.get().scheduleSaved(added);
+        awaitAssignedJobs(solveJob, 10);
+
+        Machine busyMachine = new Machine();
+        busyMachine.setId(1L);
+        busyMachine.setMachine_type_id(machineTypes.get(1L));
+        busyMachine.setStatus(MachineStatus.BUSY);
+        session.get().machineSaved(busyMachine);
+        session.get().scheduleDeleted(2L);
+        awaitAssignedJobs(solveJob, 9);
+
+        solveJob.cancel();
+        List<Schedule> result = run.get(30, TimeUnit.SECONDS);
+
+        assertEquals(9, result.size());
+        assertTrue(result.stream().anyMatch(schedule -> schedule.getId() == 10L));
+        assertTrue(result.stream().noneMatch(schedule -> schedule.getId() == 2L));
+        assertTrue(result.stream().noneMatch(schedule -> schedule.getMachine().getId() == 1L));
+        verifyNoTimeConflicts(result);
+        verifyMachineTypeCompatibility(result);
+    }
+
+    @Test
+    void testChangedConstraintWeightsApplyToNextSolve() {
+        SolveJob solveJob = new SolveJob(1L, "priority");
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .solveJob(solveJob)
+                .build();
+        constraintWeights.update("priority", withoutSoftWeights());
+
+        List<Schedule> scheduledJobs = scheduler.scheduleByCriterion("priority", options);
+
+        verifyValidSchedule(scheduledJobs);
+        assertEquals(HardSoftScore.ZERO, solveJob.getBestScore());
+    }
+
+    @Test
+    void testScheduleContinuouslyAppliesConstraintWeightChanges() throws Exception {
+        schedulerProperties.getRealTime().setUnimprovedSeconds(1);
+        SolveJob solveJob = new SolveJob(1L, "priority");
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .solveJob(solveJob)
+                .build();
+        CompletableFuture<RealTimeSession> session = new CompletableFuture<>();
+
+        Future<List<Schedule>> run = schedulerExecutor.submit(() ->
+                scheduler.scheduleContinuously("priority", options, session::complete));
+        awaitAssignedJobs(solveJob, 9);
+        assertNotEquals(0, solveJob.getBestScore().softScore());
+
+        session.get().constraintWeightsChanged(constraintWeights.update("priority", withoutSoftWeights()));
+        for (int i = 0; i < 200 && !HardSoftScore.ZERO.equals(solveJob.getBestScore()); i++) {
+            Thread.sleep(50);
+        }
+
+        solveJob.cancel();
+        List<Schedule> result = run.get(30, TimeUnit.SECONDS);
+        assertEquals(HardSoftScore.ZERO, solveJob.getBestScore());
+        verifyValidSchedule(result);
+    }
+
+    private Map<String, HardSoftScore> withoutSoftWeights() {
+        Map<String, HardSoftScore> weights = new HashMap<>();
+        constraintWeights.forCriterion("priority").weights().forEach((constraintName, weight) -> {
+            if (weight.hardScore() == 0) {
+                weights.put(constraintName, HardSoftScore.ZERO);
+            }
+        });
+        return weights;
+    }
+
+    private void awaitAssignedJobs(SolveJob solveJob, int expected) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            // Il solve viene fermato solo dopo che la ricerca locale ha risolto i conflitti
+            if (solveJob.getBestScore() != null && solveJob.getBestScore().isFeasible()
+                    && solveJob.getAssignedJobCount() == expected) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Job assegnati: " + solveJob.getAssignedJobCount() + ", attesi: " + expected);
+    }
+
+    @Test
+    void testScheduleByEveryTypePartitionedWithChainedModel() {
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .model(PlanningModel.CHAINED)
+                .partitioned(true)
+                .build();
+        when(scheduleRepository.findAll()).thenReturn(createComplexTestSchedules(LocalDateTime.now().withNano(0)));
+
+        Map<String, List<Schedule>> results = scheduler.scheduleByEveryType(options);
+
+        SolverFactoryCache.CRITERIA.forEach(criterion -> {
+            assertEquals(9, results.get(criterion).size());
+            verifyValidSchedule(results.get(criterion));
+        });
+    }
+
+    @Test
+    void testScheduleByEveryTypeWithOneMultiObjectiveSolve() {
+        SolverOptions options = scheduler.defaultSolverOptions().toBuilder()
+                .multiObjective(true)
+                .termination(SolverTermination.builder()
+                        .secondsSpentLimit(5L)
+                        .build())
+                .build();
+        List<Schedule> original = scheduleRepository.findAll();
+
+        Map<String, List<Schedule>> results = scheduler.scheduleByEveryType(options);
+
+        assertEquals(List.of("priority", "due-date", "duration", "fcfs", "rr"), new ArrayList<>(results.keySet()));
+        results.forEach((type, result) -> {
+            assertEquals(original.size(), result.size(), "Every schedule should be planned by " + type);
+            verifyValidSchedule(result);
+        });
+        Set<Schedule> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        results.values().forEach(distinct::addAll);
+        assertEquals(original.size() * results.size(), distinct.size(),
+                "Each criterion should get its own schedules");
+    }
+
+    @Test
+    void testSolverFactoryCache() {
+        SolverFactoryCache cache = new SolverFactoryCache(schedulerProperties);
+
+        SolverFactoryCache.CRITERIA.forEach(criterion -> assertNotNull(cache.buildSolver(criterion)));
+        assertNotSame(cache.buildSolver("priority"), cache.buildSolver("priority"),
+                "Each solve should get its own solver");
+        assertThrows(IllegalArgumentException.class, () -> cache.buildSolver("unknown"));
+        assertDoesNotThrow(cache::warmUp);
+    }
+
+    @Test
+    void testSolverFactoryCacheDoesNotGrowWithSeedAndTermination() {
+        SolverFactoryCache cache = new SolverFactoryCache(schedulerProperties);
+        int structuralFactories = cache.factoryCount();
+
+        for (long i = 1; i <= 3L * SolverFactoryCache.MAX_VARIANT_FACTORIES; i++) {
+            cache.buildSolver("priority", SolverOptions.defaults(schedulerProperties).toBuilder()
+                    .randomSeed(i)
+                    .termination(SolverTermination.builder().secondsSpentLimit(i).build())
+                    .build());
+            cache.buildSolver("priority", SolverOptions.defaults(schedulerProperties), (int) i);
+        }
+        assertEquals(structuralFactories + SolverFactoryCache.MAX_VARIANT_FACTORIES, cache.factoryCount(),
+                "Seeds and termination limits should not add structural factories");
+    }
+
     private void verifyMachineAssignments(List<Schedule> schedules) {
         schedules.forEach(schedule -> {
             assertNotNull(schedule.getMachine(), "Each schedule should have a machine assigned");
@@ -0,0 +1,106 @@
+package unical.demacs.rdm.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.core.impl.solver.DefaultSolver;
+import unical.demacs.rdm.config.SchedulerProperties;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Misura la velocità di calcolo dello score del modello a grain su problemi sintetici.
+ * Non gira con i test normali:
+ * mvn test -Dtest=ScoreCalculationBenchmarkTest -Dbenchmark=true [-Dbenchmark.sizes=200,1000] [-Dbenchmark.seconds=10]
+ * Ogni esecuzione aggiunge una riga per dimensione a target/benchmarks/score-calculation-speed.csv.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ScoreCalculationBenchmarkTest {
+
+    private static final Path REPORT = Path.of("target", "benchmarks", "score-calculation-speed.csv");
+    private static final int MACHINE_COUNT = 10;
+    private static final int MACHINE_TYPE_COUNT = 3;
+
+    @Test
+    void benchmarkScoreCalculationSpeed() throws IOException {
+        long seconds = Long.getLong("benchmark.seconds", 10L);
+        String sizes = System.getProperty("benchmark.sizes", "200,1000");
+
+        SolverOptions options = SolverOptions.defaults(new SchedulerProperties()).toBuilder()
+                .randomSeed(0L)
+                .build();
+        SolverFactory<ScheduleSolution> solverFactory = SolverFactory.create(SolverFactoryCache.createSolverConfig(
+                options, new TerminationConfig().withSecondsSpentLimit(seconds)));
+
+        for (String size : sizes.split(",")) {
+            int jobCount = Integer.parseInt(size.trim());
+            DefaultSolver<ScheduleSolution> solver = (DefaultSolver<ScheduleSolution>) solverFactory.buildSolver();
+            ScheduleSolution solution = solver.solve(createProblem(jobCount));
+
+            long speed = solver.getSolverScope().getScoreCalculationSpeed();
+            log.info("Score calculation speed con {} job: {}/s (score {})", jobCount, speed, solution.getScore());
+            writeReport(jobCount, seconds, speed, solution);
+            assertTrue(speed > 0);
+        }
+    }
+
+    /**
+     * Problema già inizializzato con macchine e orari casuali ma riproducibili,
+     * così il tempo è speso nella ricerca locale e non nella costruzione.
+     */
+    private ScheduleSolution createProblem(int jobCount) {
+        Random random = new Random(jobCount);
+        List<SolverMachine> machines = new ArrayList<>();
+        for (long i = 1; i <= MACHINE_COUNT; i++) {
+            machines.add(new SolverMachine(i, i % MACHINE_TYPE_COUNT));
+        }
+
+        long windowStart = LocalDateTime.of(2024, 1, 1, 8, 0).toEpochSecond(ZoneOffset.UTC);
+        long windowEnd = windowStart + Math.max(7L, jobCount / 20L) * 86_400L;
+        CountableValueRange<Long> startTimeRange = TimeGrains.range(new TimeWindow(windowStart, windowEnd), 1800L);
+
+        List<JobAssignment> assignments = new ArrayList<>();
+        for (long i = 1; i <= jobCount; i++) {
+            SolverJob job = SolverJob.builder()
+                    .id(i)
+                    .releaseTime(windowStart + 3600L * random.nextInt(48))
+                    .dueTime(windowEnd)
+                    .duration(1800L * (1 + random.nextInt(8)))
+                    .priorityFactor(random.nextInt(4))
+                    .requiredMachineTypeId((long) random.nextInt(MACHINE_TYPE_COUNT))
+                    .build();
+
+            List<SolverMachine> machineRange = machines.stream()
+                    .filter(machine -> machine.getMachineTypeId() == job.getRequiredMachineTypeId())
+                    .toList();
+            JobAssignment assignment = new JobAssignment(job, machineRange, startTimeRange);
+            assignment.setAssignedMachine(machineRange.get(random.nextInt(machineRange.size())));
+            assignment.setStartTime(startTimeRange.get(random.nextInt((int) startTimeRange.getSize())));
+            assignments.add(assignment);
+        }
+
+        return new ScheduleSolution(assignments, machines, new ScheduleConstraintConfiguration());
+    }
+
+    private void writeReport(int jobCount, long seconds, long speed, ScheduleSolution solution) throws IOException {
+        Files.createDirectories(REPORT.getParent());
+        if (Files.notExists(REPORT)) {
+            Files.writeString(REPORT, "timestamp,jobs,seconds,scoreCalculationSpeed,score\n");
+        }
+        Files.writeString(REPORT, String.format("%s,%d,%d,%d,%s%n",
+                Instant.now(), jobCount, seconds, speed, solution.getScore()), StandardOpenOption.APPEND);
+    }
+}
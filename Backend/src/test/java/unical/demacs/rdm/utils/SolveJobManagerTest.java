@@ -0,0 +1,119 @@
+package unical.demacs.rdm.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import unical.demacs.rdm.config.SchedulerProperties;
+import unical.demacs.rdm.config.exception.SolveJobNotFoundException;
+import unical.demacs.rdm.config.exception.TooManyRequestsException;
+import unical.demacs.rdm.persistence.dto.ScheduleWithMachineDTO;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SolveJobManagerTest {
+
+    @Mock
+    private Scheduler scheduler;
+
+    private ExecutorService solveJobExecutor;
+    private SolveJobManager solveJobManager;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        SchedulerProperties schedulerProperties = new SchedulerProperties();
+        solveJobExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(1));
+        solveJobManager = new SolveJobManager(scheduler, solveJobExecutor, schedulerProperties);
+
+        release = new CountDownLatch(1);
+        when(scheduler.scheduleByCriterion(any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(scheduler.toScheduleWithMachineDTOs(any())).thenReturn(List.of(new ScheduleWithMachineDTO()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        solveJobExecutor.shutdownNow();
+    }
+
+    @Test
+    void testSubmitReturnsImmediatelyAndCompletesInBackground() throws Exception {
+        SolveJob solveJob = solveJobManager.submit("priority", SolverOptions.builder().build());
+
+        assertFalse(solveJob.isDone());
+        assertNull(solveJob.getResult());
+
+        release.countDown();
+        awaitDone(solveJob);
+
+        assertEquals(SolveJob.Status.COMPLETED, solveJob.getStatus());
+        assertEquals(1, solveJob.getResult().size());
+        assertSame(solveJob, solveJobManager.get(solveJob.getProblemId()));
+        verify(scheduler).scheduleByCriterion(eq("priority"), argThat(options -> options.getSolveJob() == solveJob));
+    }
+
+    @Test
+    void testProgressListenerIsNotifiedOnCompletion() throws Exception {
+        SolveJob solveJob = solveJobManager.submit("duration", SolverOptions.builder().build());
+        List<SolveJob.Status> notified = new CopyOnWriteArrayList<>();
+        solveJob.addProgressListener(job -> notified.add(job.getStatus()));
+
+        release.countDown();
+        awaitDone(solveJob);
+
+        assertEquals(List.of(SolveJob.Status.COMPLETED), notified);
+    }
+
+    @Test
+    void testCancelQueuedJobNeverStarts() throws Exception {
+        SolveJob running = solveJobManager.submit("priority", SolverOptions.builder().build());
+        SolveJob queued = solveJobManager.submit("due-date", SolverOptions.builder().build());
+
+        solveJobManager.cancel(queued.getProblemId());
+        assertEquals(SolveJob.Status.CANCELLED, queued.getStatus());
+
+        release.countDown();
+        awaitDone(running);
+        verify(scheduler, never()).scheduleByCriterion(eq("due-date"), any());
+        assertNull(queued.getResult());
+    }
+
+    @Test
+    void testSubmitBeyondQueueIsRejected() {
+        solveJobManager.submit("priority", SolverOptions.builder().build());
+        solveJobManager.submit("priority", SolverOptions.builder().build());
+
+        assertThrows(TooManyRequestsException.class,
+                () -> solveJobManager.submit("priority", SolverOptions.builder().build()));
+    }
+
+    @Test
+    void testUnknownCriterionAndProblemId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> solveJobManager.submit("fcfs", SolverOptions.builder().build()));
+        assertThrows(SolveJobNotFoundException.class, () -> solveJobManager.get(42L));
+    }
+
+    private void awaitDone(SolveJob solveJob) throws InterruptedException {
+        for (int i = 0; i < 100 && !solveJob.isDone(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(solveJob.isDone(), "Il solve non è terminato");
+    }
+}
@@ -0,0 +1,69 @@
+package unical.demacs.rdm.utils;
+
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import unical.demacs.rdm.config.SchedulerProperties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolverTerminationTest {
+
+    @Test
+    void testRequestOverridesCriterionWhichOverridesGlobalProperties() {
+        SchedulerProperties schedulerProperties = new SchedulerProperties();
+        schedulerProperties.getTermination().setSecondsSpentLimit(60L);
+        schedulerProperties.getTermination().setUnimprovedSecondsSpentLimit(10L);
+        SchedulerProperties.Termination dueDate = new SchedulerProperties.Termination();
+        dueDate.setUnimprovedSecondsSpentLimit(5L);
+        dueDate.setBestScoreLimit("");
+        schedulerProperties.getTermination().getCriteria().put("due-date", dueDate);
+        SolverFactoryCache cache = new SolverFactoryCache(schedulerProperties);
+        SolverOptions options = SolverOptions.defaults(schedulerProperties).toBuilder()
+                .termination(SolverTermination.builder().unimprovedSecondsSpentLimit(2L).build())
+                .build();
+
+        SolverTermination priority = cache.resolveTermination("priority", SolverOptions.defaults(schedulerProperties), 0);
+        assertEquals(60L, priority.getSecondsSpentLimit());
+        assertEquals(10L, priority.getUnimprovedSecondsSpentLimit());
+        assertEquals("0hard/*soft", priority.getBestScoreLimit());
+
+        SolverTermination request = cache.resolveTermination("due-date", options, 0);
+        assertEquals(60L, request.getSecondsSpentLimit());
+        assertEquals(2L, request.getUnimprovedSecondsSpentLimit());
+        assertNull(request.toTerminationConfig().getBestScoreLimit());
+    }
+
+    @Test
+    void testBudgetScalesWithEntityCountWithinLimit() {
+        SolverTermination termination = SolverTermination.DEFAULT.toBuilder()
+                .secondsSpentLimit(120L)
+                .secondsPerEntity(0.05)
+                .build();
+
+        assertEquals(1L, termination.forEntityCount(5).getSecondsSpentLimit());
+        assertEquals(25L, termination.forEntityCount(500).getSecondsSpentLimit());
+        assertEquals(120L, termination.forEntityCount(5000).getSecondsSpentLimit());
+        assertEquals(120L, termination.forEntityCount(0).getSecondsSpentLimit());
+        assertEquals(termination.forEntityCount(490), termination.forEntityCount(500),
+                "Sizes with the same budget should share the SolverFactory key");
+    }
+
+    @Test
+    void testStepCountLimitAppliesToLocalSearchOnly() {
+        TerminationConfig terminationConfig = SolverTermination.DEFAULT.toBuilder()
+                .stepCountLimit(100)
+                .build()
+                .toTerminationConfig();
+
+        SolverConfig solverConfig = SolverFactoryCache.createSolverConfig(
+                SolverOptions.builder().build(), terminationConfig);
+
+        assertNull(solverConfig.getTerminationConfig().getStepCountLimit());
+        assertEquals(30L, solverConfig.getTerminationConfig().getSecondsSpentLimit());
+        LocalSearchPhaseConfig localSearch = (LocalSearchPhaseConfig) solverConfig.getPhaseConfigList().get(1);
+        assertEquals(100, localSearch.getTerminationConfig().getStepCountLimit());
+        assertNull(solverConfig.getPhaseConfigList().get(0).getTerminationConfig());
+    }
+}
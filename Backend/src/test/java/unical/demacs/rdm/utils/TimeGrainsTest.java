@@ -0,0 +1,93 @@
+package unical.demacs.rdm.utils;
+
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+import unical.demacs.rdm.persistence.entities.Schedule;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeGrainsTest {
+
+    private static final TimeWindow ONE_DAY = new TimeWindow(0L, 86_400L);
+
+    private Schedule scheduleWithDuration(long duration) {
+        Schedule schedule = new Schedule();
+        schedule.setDuration(duration);
+        return schedule;
+    }
+
+    @Test
+    void testGrainDerivedFromGcdOfDurations() {
+        List<Schedule> schedules = List.of(scheduleWithDuration(7200L), scheduleWithDuration(3600L), scheduleWithDuration(1800L));
+
+        assertEquals(1800L, TimeGrains.resolveGrainSeconds(schedules, ONE_DAY, null, 60L, 5000));
+    }
+
+    @Test
+    void testGrainNeverBelowMinimum() {
+        List<Schedule> schedules = List.of(scheduleWithDuration(3601L), scheduleWithDuration(3600L));
+
+        assertEquals(60L, TimeGrains.resolveGrainSeconds(schedules, ONE_DAY, null, 60L, 5000));
+    }
+
+    @Test
+    void testRequestedGrainWinsOverDerivedOne() {
+        List<Schedule> schedules = List.of(scheduleWithDuration(7200L));
+
+        assertEquals(900L, TimeGrains.resolveGrainSeconds(schedules, ONE_DAY, 900L, 60L, 5000));
+    }
+
+    @Test
+    void testGrainCountIsCapped() {
+        List<Schedule> schedules = List.of(scheduleWithDuration(60L));
+        TimeWindow oneMonth = new TimeWindow(0L, 30L * 86_400L);
+
+        long grainSeconds = TimeGrains.resolveGrainSeconds(schedules, oneMonth, null, 60L, 1000);
+
+        assertEquals(0L, grainSeconds % 60L, "Capped grain should stay a multiple of the derived one");
+        assertTrue(TimeGrains.range(oneMonth, grainSeconds).getSize() <= 1000);
+    }
+
+    @Test
+    void testCoarseGrainIsMultipleOfFineGrain() {
+        long coarseSeconds = TimeGrains.coarseGrainSeconds(ONE_DAY, 60L, 100);
+
+        assertEquals(0L, coarseSeconds % 60L);
+        assertTrue(TimeGrains.range(ONE_DAY, coarseSeconds).getSize() <= 100);
+    }
+
+    @Test
+    void testRangeCoversWholeWindow() {
+        CountableValueRange<Long> range = TimeGrains.range(ONE_DAY, 3600L);
+
+        assertEquals(25L, range.getSize());
+        assertEquals(0L, range.get(0));
+        assertEquals(86_400L, range.get(24));
+        assertTrue(range.contains(7200L));
+        assertFalse(range.contains(7201L));
+    }
+
+    @Test
+    void testFineGridOnlyCoversNeighbourhoodOfCenter() {
+        TimeGrains.FineGrid fineGrid = new TimeGrains.FineGrid(ONE_DAY, 60L);
+
+        CountableValueRange<Long> around = fineGrid.around(3600L, 600L);
+
+        assertEquals(21L, around.getSize());
+        assertEquals(3000L, around.get(0));
+        assertEquals(4200L, around.get(20));
+        assertEquals(3600L, fineGrid.at(3630L));
+    }
+
+    @Test
+    void testFineGridIsClampedToWindow() {
+        TimeGrains.FineGrid fineGrid = new TimeGrains.FineGrid(ONE_DAY, 60L);
+
+        CountableValueRange<Long> around = fineGrid.around(120L, 600L);
+
+        assertEquals(0L, around.get(0));
+        assertEquals(13L, around.getSize());
+    }
+}
@@ -0,0 +1,136 @@
+package unical.demacs.rdm.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarmStartTest {
+
+    private static final TimeWindow ONE_DAY = new TimeWindow(0L, 86_400L);
+
+    private final SolverMachine typeOneMachine = new SolverMachine(1L, 1L);
+    private final SolverMachine typeTwoMachine = new SolverMachine(2L, 2L);
+
+    private SolverJob job(long id, long releaseTime, long duration) {
+        return SolverJob.builder()
+                .id(id)
+                .releaseTime(releaseTime)
+                .dueTime(Long.MAX_VALUE)
+                .duration(duration)
+                .priorityFactor(1)
+                .requiredMachineTypeId(1L)
+                .build();
+    }
+
+    @Test
+    void testSeedIsSnappedToGridAndNeverBeforeRelease() {
+        JobAssignment late = new JobAssignment(job(1L, 0L, 600L), List.of(typeOneMachine), TimeGrains.range(ONE_DAY, 900L));
+        JobAssignment released = new JobAssignment(job(2L, 4_000L, 600L), List.of(typeOneMachine),
+                TimeGrains.range(ONE_DAY, 900L));
+        WarmStart warmStart = new WarmStart(Map.of(
+                1L, new WarmStart.Seed(1L, 1_000L),
+                2L, new WarmStart.Seed(1L, 0L)));
+
+        assertEquals(2, warmStart.apply(List.of(late, released)));
+
+        assertEquals(1_800L, late.getStartTime());
+        assertEquals(4_500L, released.getStartTime());
+        assertSame(typeOneMachine, late.getAssignedMachine());
+    }
+
+    @Test
+    void testSnappedSeedsDoNotOverlapOnTheSameMachine() {
+        // Piano back-to-back fuori griglia: 100-700 e 700-1300 diventano 900-1500 e 1800-2400
+        JobAssignment first = new JobAssignment(job(1L, 0L, 600L), List.of(typeOneMachine), TimeGrains.range(ONE_DAY, 900L));
+        JobAssignment second = new JobAssignment(job(2L, 0L, 600L), List.of(typeOneMachine),
+                TimeGrains.range(ONE_DAY, 900L));
+        WarmStart warmStart = new WarmStart(Map.of(
+                1L, new WarmStart.Seed(1L, 100L),
+                2L, new WarmStart.Seed(1L, 700L)));
+
+        assertEquals(2, warmStart.apply(List.of(second, first)));
+
+        assertEquals(900L, first.getStartTime());
+        assertEquals(1_800L, second.getStartTime());
+    }
+
+    @Test
+    void testSeedOnIncompatibleMachineOrOutsideWindowIsIgnored() {
+        JobAssignment moved = new JobAssignment(job(1L, 0L, 600L), List.of(typeOneMachine), TimeGrains.range(ONE_DAY, 900L));
+        JobAssignment outside = new JobAssignment(job(2L, 0L, 600L), List.of(typeOneMachine),
+                TimeGrains.range(ONE_DAY, 900L));
+        JobAssignment fresh = new JobAssignment(job(3L, 0L, 600L), List.of(typeOneMachine), TimeGrains.range(ONE_DAY, 900L));
+        WarmStart warmStart = new WarmStart(Map.of(
+                1L, new WarmStart.Seed(2L, 0L),
+                2L, new WarmStart.Seed(1L, 90_000L)));
+
+        assertEquals(0, warmStart.apply(List.of(moved, outside, fresh)));
+
+        List.of(moved, outside, fresh).forEach(assignment -> {
+            assertNull(assignment.getAssignedMachine());
+            assertNull(assignment.getStartTime());
+        });
+    }
+
+    @Test
+    void testPinnedSeedKeepsItsStartOffGrid() {
+        JobAssignment running = new JobAssignment(job(1L, 100L, 600L), List.of(typeOneMachine),
+                TimeGrains.range(ONE_DAY, 900L));
+        WarmStart warmStart = new WarmStart(Map.of(1L, new WarmStart.Seed(1L, 100L)), Set.of(1L));
+
+        assertEquals(1, warmStart.apply(List.of(running)));
+
+        assertEquals(100L, running.getStartTime());
+        assertTrue(running.isPinned());
+    }
+
+    @Test
+    void testPinnedJobsLeadTheirChain() {
+        SequenceSolution solution = new SequenceSolution(List.of(job(1L, 0L, 600L), job(2L, 1_200L, 600L)),
+                List.of(typeOneMachine), new ScheduleConstraintConfiguration());
+        WarmStart warmStart = new WarmStart(Map.of(
+                1L, new WarmStart.Seed(1L, 0L),
+                2L, new WarmStart.Seed(1L, 1_200L)), Set.of(2L));
+
+        assertEquals(2, warmStart.apply(solution));
+
+        SequencedJob pinned = solution.getMachineSequences().get(0).getNextJob();
+        assertEquals(2L, pinned.getId());
+        assertTrue(pinned.isPinned());
+        assertEquals(1_200L, pinned.getStartTime());
+        assertFalse(pinned.getNextJob().isPinned());
+        assertEquals(1_800L, pinned.getNextJob().getStartTime());
+    }
+
+    @Test
+    void testChainsFollowSeededOrderWithShadowVariables() {
+        SequenceSolution solution = new SequenceSolution(
+                List.of(job(1L, 0L, 3_600L), job(2L, 600L, 1_800L), job(3L, 0L, 600L)),
+                List.of(typeOneMachine, typeTwoMachine), new ScheduleConstraintConfiguration());
+        WarmStart warmStart = new WarmStart(Map.of(
+                1L, new WarmStart.Seed(1L, 7_200L),
+                2L, new WarmStart.Seed(1L, 600L),
+                3L, new WarmStart.Seed(2L, 0L)));
+
+        assertEquals(2, warmStart.apply(solution));
+
+        MachineSequence first = solution.getMachineSequences().get(0);
+        SequencedJob second = first.getNextJob();
+        SequencedJob third = second.getNextJob();
+        assertEquals(2L, second.getId());
+        assertEquals(1L, third.getId());
+        assertSame(first, second.getPreviousStandstill());
+        assertSame(first, third.getMachineSequence());
+        assertEquals(600L, second.getStartTime());
+        assertEquals(2_400L, third.getStartTime());
+        assertNull(third.getNextJob());
+
+        SequencedJob incompatible = solution.getJobs().get(2);
+        assertNull(incompatible.getPreviousStandstill());
+        assertNull(solution.getMachineSequences().get(1).getNextJob());
+    }
+}
@@ -0,0 +1,73 @@
+package unical.demacs.rdm.utils;
+
+import org.junit.jupiter.api.Test;
+import unical.demacs.rdm.persistence.entities.Machine;
+import unical.demacs.rdm.persistence.entities.MachineType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeightedRotationTest {
+
+    private Machine machine(long id, MachineType machineType) {
+        Machine machine = new Machine();
+        machine.setId(id);
+        machine.setMachine_type_id(machineType);
+        return machine;
+    }
+
+    private MachineType machineType(long id) {
+        MachineType machineType = new MachineType();
+        machineType.setId(id);
+        return machineType;
+    }
+
+    private int[] take(WeightedRotation rotation, int count) {
+        int[] machines = new int[count];
+        for (int i = 0; i < count; i++) {
+            machines[i] = rotation.next();
+        }
+        return machines;
+    }
+
+    @Test
+    void testEqualWeightsArePlainRoundRobin() {
+        WeightedRotation rotation = new WeightedRotation(new int[]{4, 7, 9}, new int[]{2, 2, 2});
+
+        assertEquals(3, rotation.cycleLength());
+        assertArrayEquals(new int[]{4, 7, 9, 4, 7, 9}, take(rotation, 6));
+    }
+
+    @Test
+    void testHeavierMachineGetsProportionallyMoreJobsSpreadOverTheCycle() {
+        WeightedRotation rotation = new WeightedRotation(new int[]{0, 1}, new int[]{3, 1});
+
+        assertArrayEquals(new int[]{0, 0, 1, 0}, take(rotation, 4));
+    }
+
+    @Test
+    void testRotationsAreIndependentPerMachineType() {
+        MachineType first = machineType(1L);
+        MachineType second = machineType(2L);
+        List<Machine> machines = List.of(machine(10L, first), machine(20L, second), machine(30L, first),
+                machine(40L, second), machine(50L, null));
+
+        Map<Long, WeightedRotation> rotations = WeightedRotation.byMachineType(machines, Map.of(30L, 2, 40L, 0), 1);
+
+        assertEquals(2, rotations.size());
+        assertArrayEquals(new int[]{2, 0, 2, 2, 0, 2}, take(rotations.get(1L), 6));
+        assertArrayEquals(new int[]{1, 1}, take(rotations.get(2L), 2));
+    }
+
+    @Test
+    void testTypeWithOnlyZeroWeightMachinesHasNoRotation() {
+        MachineType first = machineType(1L);
+
+        Map<Long, WeightedRotation> rotations = WeightedRotation.byMachineType(List.of(machine(10L, first)),
+                Map.of(10L, 0), 1);
+
+        assertTrue(rotations.isEmpty());
+    }
+}